@@ -2,10 +2,13 @@ package com.example.springai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class SpringAiLangChainApplication {
     public static void main(String[] args) {
-        SpringApplication.run(SpringAiLangChainApplication.class, args);
+        SpringApplication application = new SpringApplication(SpringAiLangChainApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.example.springai.analysis;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Configuration
+public class AnalysisConfig {
+
+    @Value("${analysis.lexicon.question:?}")
+    private String[] questionTerms;
+
+    @Value("${analysis.lexicon.request:please,can you}")
+    private String[] requestTerms;
+
+    @Value("${analysis.lexicon.positive:great,awesome,good}")
+    private String[] positiveTerms;
+
+    @Value("${analysis.lexicon.negative:bad,terrible,awful}")
+    private String[] negativeTerms;
+
+    // Optional file with one "category:term" entry per line, for lexicons too large for properties.
+    @Value("${analysis.lexicon.location:}")
+    private String lexiconLocation;
+
+    @Bean
+    public TextAnalyzer textAnalyzer(ResourceLoader resourceLoader) {
+        Map<Lexicon, List<String>> lexicons = new EnumMap<>(Lexicon.class);
+        lexicons.put(Lexicon.QUESTION, new ArrayList<>(Arrays.asList(questionTerms)));
+        lexicons.put(Lexicon.REQUEST, new ArrayList<>(Arrays.asList(requestTerms)));
+        lexicons.put(Lexicon.POSITIVE, new ArrayList<>(Arrays.asList(positiveTerms)));
+        lexicons.put(Lexicon.NEGATIVE, new ArrayList<>(Arrays.asList(negativeTerms)));
+        if (StringUtils.hasText(lexiconLocation)) {
+            loadLexicons(resourceLoader.getResource(lexiconLocation), lexicons);
+        }
+        lexicons.values().forEach(terms -> {
+            terms.replaceAll(String::trim);
+            terms.removeIf(String::isEmpty);
+        });
+        return new LexiconAnalyzer(lexicons);
+    }
+
+    private void loadLexicons(Resource resource, Map<Lexicon, List<String>> lexicons) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(':');
+                if (line.isBlank() || line.startsWith("#") || separator <= 0) {
+                    continue;
+                }
+                String term = line.substring(separator + 1).trim();
+                if (!term.isEmpty()) {
+                    Lexicon lexicon = Lexicon.valueOf(line.substring(0, separator).trim().toUpperCase(Locale.ROOT));
+                    lexicons.get(lexicon).add(term);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load lexicon from " + resource, e);
+        }
+    }
+}
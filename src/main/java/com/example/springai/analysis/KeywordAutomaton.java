@@ -0,0 +1,329 @@
+package com.example.springai.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Case-insensitive Aho-Corasick automaton over a set of keywords, each tagged with a category
+ * (0-31). Failure links are folded into a dense transition table at build time, so matching is
+ * one table lookup per input character regardless of how many keywords are loaded. When the
+ * keywords span so many distinct characters that the dense table would exceed a size bound, the
+ * automaton keeps sorted per-state edges instead and follows failure links while matching.
+ * Matches use substring semantics, like {@link String#contains}.
+ */
+public final class KeywordAutomaton {
+
+    public static final int MAX_CATEGORIES = Integer.SIZE;
+
+    // 4M entries, 16 MB of transitions.
+    public static final int DEFAULT_MAX_DENSE_TRANSITIONS = 1 << 22;
+
+    private static final int ROOT = 0;
+    private static final int OTHER = 0;
+
+    private final int[] asciiClasses;
+    private final char[] nonAsciiChars;
+    private final int[] nonAsciiClasses;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[] outputs;
+    // Sparse form, used when transitions is null: the edges of state s are
+    // edgeClasses/edgeTargets[edgeOffsets[s] .. edgeOffsets[s + 1]), sorted by class.
+    private final int[] edgeOffsets;
+    private final int[] edgeClasses;
+    private final int[] edgeTargets;
+    private final int[] failure;
+
+    private KeywordAutomaton(int[] asciiClasses, char[] nonAsciiChars, int[] nonAsciiClasses,
+                             int alphabetSize, int[] transitions, int[] outputs,
+                             int[] edgeOffsets, int[] edgeClasses, int[] edgeTargets, int[] failure) {
+        this.asciiClasses = asciiClasses;
+        this.nonAsciiChars = nonAsciiChars;
+        this.nonAsciiClasses = nonAsciiClasses;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeClasses = edgeClasses;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int start() {
+        return ROOT;
+    }
+
+    public int next(int state, char c) {
+        int charClass = classOf(Character.toLowerCase(c));
+        if (transitions != null) {
+            return transitions[state * alphabetSize + charClass];
+        }
+        if (charClass == OTHER) {
+            return ROOT;
+        }
+        while (true) {
+            int edge = Arrays.binarySearch(edgeClasses, edgeOffsets[state], edgeOffsets[state + 1], charClass);
+            if (edge >= 0) {
+                return edgeTargets[edge];
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = failure[state];
+        }
+    }
+
+    /**
+     * Bitmask of the categories whose keywords end at this state.
+     */
+    public int outputs(int state) {
+        return outputs[state];
+    }
+
+    public int scan(CharSequence text) {
+        int state = ROOT;
+        int matched = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = next(state, text.charAt(i));
+            matched |= outputs[state];
+        }
+        return matched;
+    }
+
+    public Matcher matcher() {
+        return new Matcher();
+    }
+
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    public boolean isDense() {
+        return transitions != null;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(nonAsciiChars, c);
+        return index >= 0 ? nonAsciiClasses[index] : OTHER;
+    }
+
+    /**
+     * Incremental matcher for text that arrives in chunks. Keywords split across chunk
+     * boundaries are still found. Not thread-safe; use one per stream.
+     */
+    public final class Matcher {
+
+        private int state = ROOT;
+        private int matched;
+
+        /**
+         * Feeds the next chunk and returns the categories matched within it.
+         */
+        public int feed(CharSequence chunk) {
+            int found = 0;
+            int current = state;
+            for (int i = 0, length = chunk.length(); i < length; i++) {
+                current = next(current, chunk.charAt(i));
+                found |= outputs[current];
+            }
+            state = current;
+            matched |= found;
+            return found;
+        }
+
+        public int matched() {
+            return matched;
+        }
+
+        public void reset() {
+            state = ROOT;
+            matched = 0;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Integer> keywords = new HashMap<>();
+        private int maxDenseTransitions = DEFAULT_MAX_DENSE_TRANSITIONS;
+
+        private Builder() {
+        }
+
+        /**
+         * Largest dense transition table (states x distinct characters) to allocate before
+         * switching to sparse edges.
+         */
+        public Builder maxDenseTransitions(int maxDenseTransitions) {
+            if (maxDenseTransitions < 0) {
+                throw new IllegalArgumentException("maxDenseTransitions must not be negative");
+            }
+            this.maxDenseTransitions = maxDenseTransitions;
+            return this;
+        }
+
+        public Builder add(String keyword, int category) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            if (category < 0 || category >= MAX_CATEGORIES) {
+                throw new IllegalArgumentException("Category must be between 0 and " + (MAX_CATEGORIES - 1));
+            }
+            keywords.merge(fold(keyword), 1 << category, (a, b) -> a | b);
+            return this;
+        }
+
+        public Builder addAll(Iterable<String> keywords, int category) {
+            for (String keyword : keywords) {
+                add(keyword, category);
+            }
+            return this;
+        }
+
+        public KeywordAutomaton build() {
+            TreeSet<Character> alphabet = new TreeSet<>();
+            for (String keyword : keywords.keySet()) {
+                for (int i = 0; i < keyword.length(); i++) {
+                    alphabet.add(keyword.charAt(i));
+                }
+            }
+
+            int[] asciiClasses = new int[128];
+            List<Character> nonAscii = new ArrayList<>();
+            int alphabetSize = 1;
+            for (char c : alphabet) {
+                if (c < 128) {
+                    asciiClasses[c] = alphabetSize++;
+                } else {
+                    nonAscii.add(c);
+                }
+            }
+            char[] nonAsciiChars = new char[nonAscii.size()];
+            int[] nonAsciiClasses = new int[nonAscii.size()];
+            for (int i = 0; i < nonAsciiChars.length; i++) {
+                nonAsciiChars[i] = nonAscii.get(i);
+                nonAsciiClasses[i] = alphabetSize++;
+            }
+
+            // Trie first, using the dense character classes as edge labels.
+            List<Map<Integer, Integer>> children = new ArrayList<>();
+            List<Integer> terminal = new ArrayList<>();
+            children.add(new HashMap<>());
+            terminal.add(0);
+            for (Map.Entry<String, Integer> entry : keywords.entrySet()) {
+                String keyword = entry.getKey();
+                int state = ROOT;
+                for (int i = 0; i < keyword.length(); i++) {
+                    int charClass = classOf(keyword.charAt(i), asciiClasses, nonAsciiChars, nonAsciiClasses);
+                    Integer child = children.get(state).get(charClass);
+                    if (child == null) {
+                        child = children.size();
+                        children.add(new HashMap<>());
+                        terminal.add(0);
+                        children.get(state).put(charClass, child);
+                    }
+                    state = child;
+                }
+                terminal.set(state, terminal.get(state) | entry.getValue());
+            }
+
+            int stateCount = children.size();
+            if ((long) stateCount * alphabetSize > maxDenseTransitions) {
+                return buildSparse(children, terminal, asciiClasses, nonAsciiChars, nonAsciiClasses, alphabetSize);
+            }
+
+            // Breadth-first pass resolves failure links into the transition table.
+            int[] transitions = new int[stateCount * alphabetSize];
+            int[] outputs = new int[stateCount];
+            int[] failure = new int[stateCount];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (Map.Entry<Integer, Integer> edge : children.get(ROOT).entrySet()) {
+                transitions[edge.getKey()] = edge.getValue();
+                queue.add(edge.getValue());
+            }
+            outputs[ROOT] = terminal.get(ROOT);
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs[state] = terminal.get(state) | outputs[failure[state]];
+                Map<Integer, Integer> edges = children.get(state);
+                int base = state * alphabetSize;
+                int failureBase = failure[state] * alphabetSize;
+                for (int charClass = 0; charClass < alphabetSize; charClass++) {
+                    Integer child = edges.get(charClass);
+                    if (child == null) {
+                        transitions[base + charClass] = transitions[failureBase + charClass];
+                    } else {
+                        failure[child] = transitions[failureBase + charClass];
+                        transitions[base + charClass] = child;
+                        queue.add(child);
+                    }
+                }
+            }
+
+            return new KeywordAutomaton(asciiClasses, nonAsciiChars, nonAsciiClasses,
+                    alphabetSize, transitions, outputs, null, null, null, null);
+        }
+
+        private static KeywordAutomaton buildSparse(List<Map<Integer, Integer>> children, List<Integer> terminal,
+                                                    int[] asciiClasses, char[] nonAsciiChars,
+                                                    int[] nonAsciiClasses, int alphabetSize) {
+            int stateCount = children.size();
+            int[] outputs = new int[stateCount];
+            int[] failure = new int[stateCount];
+            ArrayDeque<Integer> queue = new ArrayDeque<>(children.get(ROOT).values());
+            outputs[ROOT] = terminal.get(ROOT);
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs[state] = terminal.get(state) | outputs[failure[state]];
+                for (Map.Entry<Integer, Integer> edge : children.get(state).entrySet()) {
+                    int fallback = failure[state];
+                    while (fallback != ROOT && !children.get(fallback).containsKey(edge.getKey())) {
+                        fallback = failure[fallback];
+                    }
+                    failure[edge.getValue()] = children.get(fallback).getOrDefault(edge.getKey(), ROOT);
+                    queue.add(edge.getValue());
+                }
+            }
+
+            int[] edgeOffsets = new int[stateCount + 1];
+            for (int state = 0; state < stateCount; state++) {
+                edgeOffsets[state + 1] = edgeOffsets[state] + children.get(state).size();
+            }
+            int[] edgeClasses = new int[edgeOffsets[stateCount]];
+            int[] edgeTargets = new int[edgeClasses.length];
+            for (int state = 0; state < stateCount; state++) {
+                int edge = edgeOffsets[state];
+                for (Map.Entry<Integer, Integer> entry : new TreeMap<>(children.get(state)).entrySet()) {
+                    edgeClasses[edge] = entry.getKey();
+                    edgeTargets[edge++] = entry.getValue();
+                }
+            }
+            return new KeywordAutomaton(asciiClasses, nonAsciiChars, nonAsciiClasses,
+                    alphabetSize, null, outputs, edgeOffsets, edgeClasses, edgeTargets, failure);
+        }
+
+        private static String fold(String keyword) {
+            char[] chars = keyword.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = Character.toLowerCase(chars[i]);
+            }
+            return new String(chars);
+        }
+
+        private static int classOf(char c, int[] asciiClasses, char[] nonAsciiChars, int[] nonAsciiClasses) {
+            return c < 128 ? asciiClasses[c] : nonAsciiClasses[Arrays.binarySearch(nonAsciiChars, c)];
+        }
+    }
+}
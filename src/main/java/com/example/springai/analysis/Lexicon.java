@@ -0,0 +1,16 @@
+package com.example.springai.analysis;
+
+public enum Lexicon {
+    QUESTION,
+    REQUEST,
+    POSITIVE,
+    NEGATIVE;
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public boolean isIn(int matched) {
+        return (matched & mask()) != 0;
+    }
+}
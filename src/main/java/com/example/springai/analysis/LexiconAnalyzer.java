@@ -0,0 +1,49 @@
+package com.example.springai.analysis;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Extracts word count and lexicon features in a single pass over the text: each character
+ * advances the word counter and the {@link KeywordAutomaton}, nothing is allocated per character.
+ */
+public class LexiconAnalyzer implements TextAnalyzer {
+
+    private final KeywordAutomaton automaton;
+
+    public LexiconAnalyzer(Map<Lexicon, ? extends Collection<String>> lexicons) {
+        KeywordAutomaton.Builder builder = KeywordAutomaton.builder();
+        lexicons.forEach((lexicon, terms) -> builder.addAll(terms, lexicon.ordinal()));
+        this.automaton = builder.build();
+    }
+
+    @Override
+    public TextFeatures analyze(CharSequence text) {
+        int state = automaton.start();
+        int matched = 0;
+        int words = 0;
+        boolean inWord = false;
+
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                words++;
+            }
+            state = automaton.next(state, c);
+            matched |= automaton.outputs(state);
+        }
+
+        return new TextFeatures(words,
+                Lexicon.QUESTION.isIn(matched),
+                Lexicon.REQUEST.isIn(matched),
+                Lexicon.POSITIVE.isIn(matched),
+                Lexicon.NEGATIVE.isIn(matched));
+    }
+
+    public KeywordAutomaton getAutomaton() {
+        return automaton;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.springai.analysis;
+
+@FunctionalInterface
+public interface TextAnalyzer {
+
+    TextFeatures analyze(CharSequence text);
+}
@@ -0,0 +1,76 @@
+package com.example.springai.analysis;
+
+import java.util.Objects;
+
+public class TextFeatures {
+
+    public static final String SENTIMENT_POSITIVE = "positive";
+    public static final String SENTIMENT_NEGATIVE = "negative";
+    public static final String SENTIMENT_NEUTRAL = "neutral";
+
+    private final int wordCount;
+    private final boolean question;
+    private final boolean request;
+    private final boolean positive;
+    private final boolean negative;
+
+    public TextFeatures(int wordCount, boolean question, boolean request, boolean positive, boolean negative) {
+        this.wordCount = wordCount;
+        this.question = question;
+        this.request = request;
+        this.positive = positive;
+        this.negative = negative;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public boolean isQuestion() {
+        return question;
+    }
+
+    public boolean isRequest() {
+        return request;
+    }
+
+    public boolean isPositive() {
+        return positive;
+    }
+
+    public boolean isNegative() {
+        return negative;
+    }
+
+    public String getSentiment() {
+        if (positive) {
+            return SENTIMENT_POSITIVE;
+        } else if (negative) {
+            return SENTIMENT_NEGATIVE;
+        }
+        return SENTIMENT_NEUTRAL;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TextFeatures other)) {
+            return false;
+        }
+        return wordCount == other.wordCount && question == other.question && request == other.request
+                && positive == other.positive && negative == other.negative;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(wordCount, question, request, positive, negative);
+    }
+
+    @Override
+    public String toString() {
+        return "TextFeatures{wordCount=" + wordCount + ", question=" + question + ", request=" + request
+                + ", sentiment=" + getSentiment() + "}";
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.springai.cluster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Talks {@link CacheProtocol} to peers, reusing a few idle connections per peer.
+ * A connection that fails mid-request is discarded rather than returned to the pool, and one
+ * that sat idle for longer than {@code maxIdleTime} is closed instead of reused, so that it is
+ * not handed out after the peer's idle timeout has closed the other end.
+ */
+public class CacheClient implements Closeable {
+
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final int maxIdlePerPeer;
+    private final long maxIdleNanos;
+    private final FrameAuthenticator authenticator;
+    private final ConcurrentMap<String, Queue<Connection>> idle = new ConcurrentHashMap<>();
+
+    public CacheClient(Duration connectTimeout, Duration readTimeout, int maxIdlePerPeer, Duration maxIdleTime,
+                       String secret) {
+        this.connectTimeoutMillis = (int) connectTimeout.toMillis();
+        this.readTimeoutMillis = (int) readTimeout.toMillis();
+        this.maxIdlePerPeer = maxIdlePerPeer;
+        this.maxIdleNanos = maxIdleTime.toNanos();
+        this.authenticator = new FrameAuthenticator(secret);
+    }
+
+    public byte[] get(String peer, String key) throws IOException {
+        Connection connection = borrow(peer);
+        try {
+            connection.out.writeByte(CacheProtocol.OP_GET);
+            connection.out.writeUTF(key);
+            connection.out.write(authenticator.signRequest(CacheProtocol.OP_GET, key, 0L, null));
+            connection.out.flush();
+
+            byte[] value = null;
+            byte status = connection.in.readByte();
+            if (status == CacheProtocol.STATUS_HIT) {
+                int length = connection.in.readInt();
+                byte[] headerTag = new byte[FrameAuthenticator.TAG_BYTES];
+                connection.in.readFully(headerTag);
+                if (!authenticator.verifyResponseHeader(headerTag, status, key, length)) {
+                    throw new IOException("Invalid response header signature from " + peer);
+                }
+                if (length < 0 || length > CacheProtocol.MAX_VALUE_BYTES) {
+                    throw new IOException("Invalid value length " + length + " from " + peer);
+                }
+                value = new byte[length];
+                connection.in.readFully(value);
+            } else if (status != CacheProtocol.STATUS_MISS) {
+                throw new IOException("Unexpected status " + status + " from " + peer);
+            }
+            verify(connection, peer, status, key, value);
+            release(peer, connection);
+            return value;
+        } catch (IOException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    public void put(String peer, String key, byte[] value, Duration ttl) throws IOException {
+        Connection connection = borrow(peer);
+        try {
+            connection.out.writeByte(CacheProtocol.OP_PUT);
+            connection.out.writeUTF(key);
+            connection.out.writeLong(ttl.toMillis());
+            connection.out.writeInt(value.length);
+            connection.out.write(authenticator.signRequestHeader(CacheProtocol.OP_PUT, key, ttl.toMillis(),
+                    value.length));
+            connection.out.write(value);
+            connection.out.write(authenticator.signRequest(CacheProtocol.OP_PUT, key, ttl.toMillis(), value));
+            connection.out.flush();
+
+            byte status = connection.in.readByte();
+            if (status != CacheProtocol.STATUS_STORED) {
+                throw new IOException("Unexpected status " + status + " from " + peer);
+            }
+            verify(connection, peer, status, key, null);
+            release(peer, connection);
+        } catch (IOException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private void verify(Connection connection, String peer, byte status, String key, byte[] value) throws IOException {
+        byte[] tag = new byte[FrameAuthenticator.TAG_BYTES];
+        connection.in.readFully(tag);
+        if (!authenticator.verifyResponse(tag, status, key, value)) {
+            throw new IOException("Invalid response signature from " + peer);
+        }
+    }
+
+    private Connection borrow(String peer) throws IOException {
+        Queue<Connection> pool = idle.get(peer);
+        if (pool != null) {
+            Connection connection;
+            while ((connection = pool.poll()) != null) {
+                if (System.nanoTime() - connection.idleSince <= maxIdleNanos) {
+                    return connection;
+                }
+                connection.close();
+            }
+        }
+        return open(peer);
+    }
+
+    private void release(String peer, Connection connection) {
+        Queue<Connection> pool = idle.computeIfAbsent(peer, p -> new ConcurrentLinkedQueue<>());
+        if (pool.size() < maxIdlePerPeer) {
+            connection.idleSince = System.nanoTime();
+            pool.offer(connection);
+        } else {
+            connection.close();
+        }
+    }
+
+    private Connection open(String peer) throws IOException {
+        int separator = peer.lastIndexOf(':');
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(readTimeoutMillis);
+            socket.connect(new InetSocketAddress(peer.substring(0, separator),
+                    Integer.parseInt(peer.substring(separator + 1))), connectTimeoutMillis);
+            return new Connection(socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Drops pooled connections to peers that have left the ring.
+     */
+    public void retainPeers(Collection<String> peers) {
+        idle.entrySet().removeIf(entry -> {
+            if (peers.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().forEach(Connection::close);
+            return true;
+        });
+    }
+
+    @Override
+    public void close() {
+        idle.values().forEach(pool -> pool.forEach(Connection::close));
+        idle.clear();
+    }
+
+    private static final class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private volatile long idleSince;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Already broken.
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.springai.cluster;
+
+/**
+ * Wire format between replicas, one request/response pair at a time per connection. Every
+ * frame ends with an HMAC-SHA256 tag from {@link FrameAuthenticator}; a frame with a bad tag
+ * closes the connection. Frames carrying a value also sign the header in front of it, so an
+ * unauthenticated peer cannot make the receiver allocate a buffer.
+ *
+ * <pre>
+ * GET request:  [op=1][key: modified UTF-8][tag]
+ * PUT request:  [op=2][key: modified UTF-8][ttl millis: long][length: int][header tag][value][tag]
+ * GET response: [status=0 miss | 1 hit]([length: int][header tag][value] on hit)[tag]
+ * PUT response: [status=2 stored][tag]
+ * </pre>
+ */
+final class CacheProtocol {
+
+    static final byte OP_GET = 1;
+    static final byte OP_PUT = 2;
+
+    static final byte STATUS_MISS = 0;
+    static final byte STATUS_HIT = 1;
+    static final byte STATUS_STORED = 2;
+
+    static final int MAX_VALUE_BYTES = 16 * 1024 * 1024;
+
+    private CacheProtocol() {
+    }
+}
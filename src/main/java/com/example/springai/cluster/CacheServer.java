@@ -0,0 +1,199 @@
+package com.example.springai.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves this replica's {@link LocalCacheStore} to peers over {@link CacheProtocol}.
+ * Peers keep connections open, so each connection gets its own thread; connections beyond
+ * {@code maxConnections} are closed right away, and connections that stay idle for
+ * {@code idleTimeout} are closed to free their slot. The server only listens on the given bind
+ * address and only answers frames signed with the shared secret.
+ */
+public class CacheServer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheServer.class);
+
+    private final String bindAddress;
+    private final int port;
+    private final LocalCacheStore store;
+    private final FrameAuthenticator authenticator;
+    private final int idleTimeoutMillis;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+    private volatile ServerSocket serverSocket;
+
+    public CacheServer(String bindAddress, int port, LocalCacheStore store, String secret, int maxConnections,
+                       Duration idleTimeout) {
+        this(bindAddress, port, store, new FrameAuthenticator(secret), maxConnections, idleTimeout);
+    }
+
+    private CacheServer(String bindAddress, int port, LocalCacheStore store, FrameAuthenticator authenticator,
+                        int maxConnections, Duration idleTimeout) {
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.store = store;
+        this.authenticator = authenticator;
+        this.idleTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, idleTimeout.toMillis());
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxConnections, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cluster-cache-server-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * A server that is never started, for replicas with the cluster cache turned off.
+     */
+    public static CacheServer disabled() {
+        return new CacheServer(null, 0, null, (FrameAuthenticator) null, 1, Duration.ZERO);
+    }
+
+    public void start() throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(new InetSocketAddress(bindAddress, port));
+        this.serverSocket = socket;
+        Thread acceptor = new Thread(this::acceptLoop, "cluster-cache-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Cluster cache listening on {}:{}", bindAddress, getPort());
+    }
+
+    public int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : port;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(idleTimeoutMillis);
+                connections.add(socket);
+                try {
+                    executor.execute(() -> serve(socket));
+                } catch (RejectedExecutionException e) {
+                    connections.remove(socket);
+                    closeQuietly(socket);
+                    if (!executor.isShutdown()) {
+                        logger.warn("Cluster cache rejected connection from {}: connection limit reached",
+                                socket.getRemoteSocketAddress());
+                    }
+                }
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                logger.warn("Cluster cache failed to accept connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                byte op = in.readByte();
+                String key = in.readUTF();
+                if (op == CacheProtocol.OP_GET) {
+                    verify(in, op, key, 0L, null);
+                    byte[] value = store.get(key);
+                    if (value == null) {
+                        out.writeByte(CacheProtocol.STATUS_MISS);
+                        out.write(authenticator.signResponse(CacheProtocol.STATUS_MISS, key, null));
+                    } else {
+                        out.writeByte(CacheProtocol.STATUS_HIT);
+                        out.writeInt(value.length);
+                        out.write(authenticator.signResponseHeader(CacheProtocol.STATUS_HIT, key, value.length));
+                        out.write(value);
+                        out.write(authenticator.signResponse(CacheProtocol.STATUS_HIT, key, value));
+                    }
+                } else if (op == CacheProtocol.OP_PUT) {
+                    long ttlMillis = in.readLong();
+                    int length = in.readInt();
+                    verifyHeader(in, op, key, ttlMillis, length);
+                    if (length < 0 || length > CacheProtocol.MAX_VALUE_BYTES) {
+                        throw new IOException("Invalid value length " + length);
+                    }
+                    byte[] value = new byte[length];
+                    in.readFully(value);
+                    verify(in, op, key, ttlMillis, value);
+                    store.put(key, value, Duration.ofMillis(ttlMillis));
+                    out.writeByte(CacheProtocol.STATUS_STORED);
+                    out.write(authenticator.signResponse(CacheProtocol.STATUS_STORED, key, null));
+                } else {
+                    throw new IOException("Unknown cache operation " + op);
+                }
+                out.flush();
+            }
+        } catch (EOFException | SocketException e) {
+            // Peer closed the connection.
+        } catch (SocketTimeoutException e) {
+            // Idle for longer than the idle timeout; the peer reconnects when it needs to.
+        } catch (IOException e) {
+            logger.warn("Closing cluster cache connection from {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private void verifyHeader(DataInputStream in, byte op, String key, long ttlMillis, int length)
+            throws IOException {
+        byte[] tag = new byte[FrameAuthenticator.TAG_BYTES];
+        in.readFully(tag);
+        if (!authenticator.verifyRequestHeader(tag, op, key, ttlMillis, length)) {
+            throw new IOException("Invalid request header signature");
+        }
+    }
+
+    private void verify(DataInputStream in, byte op, String key, long ttlMillis, byte[] value) throws IOException {
+        byte[] tag = new byte[FrameAuthenticator.TAG_BYTES];
+        in.readFully(tag);
+        if (!authenticator.verifyRequest(tag, op, key, ttlMillis, value)) {
+            throw new IOException("Invalid request signature");
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Nothing was exchanged on it yet.
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+}
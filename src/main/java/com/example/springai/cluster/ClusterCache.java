@@ -0,0 +1,234 @@
+package com.example.springai.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache tier shared by all replicas. Every key has one owner on the consistent-hash ring;
+ * lookups try the local store first and then ask the owner. Keys that keep being fetched from
+ * a peer are copied into the local store for a short time, so hot keys do not pin a single
+ * replica. Writes land in the local store first and are pushed to the owner in the background,
+ * so a slow peer never delays the caller; pushes beyond the queue are dropped. All failures
+ * degrade to a miss.
+ */
+public class ClusterCache implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterCache.class);
+    private static final int MAX_TRACKED_KEYS = 10_000;
+    private static final int PUSH_THREADS = 2;
+    private static final int MAX_PENDING_PUSHES = 1024;
+
+    private final boolean enabled;
+    private final String selfId;
+    private final LocalCacheStore localStore;
+    private final CacheClient client;
+    private final PeerDiscovery discovery;
+    private final int virtualNodes;
+    private final int hotKeyThreshold;
+    private final Duration replicaTtl;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, AtomicInteger> remoteHits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingPushes = new AtomicInteger();
+    private final ThreadPoolExecutor pushExecutor;
+    private volatile ConsistentHashRing ring;
+    private ScheduledExecutorService scheduler;
+
+    public ClusterCache(String selfId, LocalCacheStore localStore, CacheClient client,
+                        PeerDiscovery discovery, int virtualNodes, int hotKeyThreshold,
+                        Duration replicaTtl, MeterRegistry registry) {
+        this(true, selfId, localStore, client, discovery, virtualNodes, hotKeyThreshold, replicaTtl, registry);
+    }
+
+    private ClusterCache(boolean enabled, String selfId, LocalCacheStore localStore, CacheClient client,
+                         PeerDiscovery discovery, int virtualNodes, int hotKeyThreshold,
+                         Duration replicaTtl, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.selfId = selfId;
+        this.localStore = localStore;
+        this.client = client;
+        this.discovery = discovery;
+        this.virtualNodes = virtualNodes;
+        this.hotKeyThreshold = hotKeyThreshold;
+        this.replicaTtl = replicaTtl;
+        this.registry = registry;
+        this.ring = new ConsistentHashRing(List.of(), virtualNodes);
+        this.pushExecutor = enabled ? newPushExecutor() : null;
+
+        if (enabled) {
+            Gauge.builder("cluster.cache.peers", this, cache -> cache.ring.getNodes().size())
+                    .description("Replicas currently on the cache ring")
+                    .register(registry);
+            Gauge.builder("cluster.cache.entries", localStore, LocalCacheStore::size)
+                    .description("Entries held in this replica's cache store")
+                    .register(registry);
+        }
+    }
+
+    private static ThreadPoolExecutor newPushExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(PUSH_THREADS, PUSH_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_PUSHES), runnable -> {
+                    Thread thread = new Thread(runnable, "cluster-cache-push-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static ClusterCache disabled() {
+        return new ClusterCache(false, null, null, null, null, 1, 0, Duration.ZERO, null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void startDiscovery(Duration refreshInterval) {
+        refreshPeers();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-cache-discovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshPeers,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void refreshPeers() {
+        try {
+            HashSet<String> peers = new HashSet<>(discovery.discoverPeers());
+            peers.add(selfId);
+            if (!peers.equals(new HashSet<>(ring.getNodes()))) {
+                ring = new ConsistentHashRing(peers, virtualNodes);
+                client.retainPeers(peers);
+                logger.info("Cluster cache ring updated: {}", ring.getNodes());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Cluster cache peer refresh failed", e);
+        }
+    }
+
+    public byte[] get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        byte[] local = localStore.get(key);
+        if (local != null) {
+            record("local", "hit");
+            return local;
+        }
+
+        String owner = ring.owner(key);
+        if (owner == null || owner.equals(selfId)) {
+            record("local", "miss");
+            return null;
+        }
+        try {
+            byte[] value = client.get(owner, key);
+            record("peer", value != null ? "hit" : "miss");
+            if (value != null && isHot(key)) {
+                localStore.put(key, value, replicaTtl);
+            }
+            return value;
+        } catch (IOException e) {
+            logger.debug("Cluster cache get from {} failed: {}", owner, e.getMessage());
+            record("peer", "error");
+            return null;
+        }
+    }
+
+    public void put(String key, byte[] value, Duration ttl) {
+        if (!enabled) {
+            return;
+        }
+        String owner = ring.owner(key);
+        if (owner == null || owner.equals(selfId)) {
+            localStore.put(key, value, ttl);
+            return;
+        }
+        localStore.put(key, value, replicaTtl);
+        pendingPushes.incrementAndGet();
+        try {
+            pushExecutor.execute(() -> push(owner, key, value, ttl));
+        } catch (RejectedExecutionException e) {
+            pendingPushes.decrementAndGet();
+            record("peer", "dropped");
+        }
+    }
+
+    private void push(String owner, String key, byte[] value, Duration ttl) {
+        try {
+            client.put(owner, key, value, ttl);
+        } catch (IOException e) {
+            logger.debug("Cluster cache put to {} failed: {}", owner, e.getMessage());
+            record("peer", "error");
+        } finally {
+            pendingPushes.decrementAndGet();
+        }
+    }
+
+    /**
+     * Waits until queued pushes to owners have finished.
+     */
+    void flush() throws InterruptedException {
+        while (pendingPushes.get() > 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    private boolean isHot(String key) {
+        if (remoteHits.size() > MAX_TRACKED_KEYS) {
+            remoteHits.clear();
+        }
+        int hits = remoteHits.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        if (hits >= hotKeyThreshold) {
+            remoteHits.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    private void record(String tier, String result) {
+        counters.computeIfAbsent(tier + '|' + result, k -> Counter.builder("cluster.cache.requests")
+                .description("Cluster cache lookups by tier and result")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (pushExecutor != null) {
+            pushExecutor.shutdownNow();
+        }
+        if (client != null) {
+            client.close();
+        }
+    }
+}
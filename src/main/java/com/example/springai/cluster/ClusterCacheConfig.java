@@ -0,0 +1,107 @@
+package com.example.springai.cluster;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+
+// Enablement is checked at runtime rather than with @ConditionalOnProperty, which the
+// AOT-processed image would freeze at build time.
+@Configuration
+public class ClusterCacheConfig {
+
+    @Value("${cluster.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cluster.cache.port:7071}")
+    private int port;
+
+    @Value("${cluster.cache.advertise-address:${POD_IP:127.0.0.1}}")
+    private String advertiseAddress;
+
+    @Value("${cluster.cache.bind-address:}")
+    private String bindAddress;
+
+    @Value("${cluster.cache.secret:${CLUSTER_CACHE_SECRET:}}")
+    private String secret;
+
+    // Every peer may keep max-idle-per-peer connections open to this replica, so this must be
+    // at least (replicas - 1) x max-idle-per-peer or peers beyond that are turned away.
+    @Value("${cluster.cache.max-connections:128}")
+    private int maxConnections;
+
+    @Value("${cluster.cache.max-idle-per-peer:4}")
+    private int maxIdlePerPeer;
+
+    @Value("${cluster.cache.idle-timeout:2m}")
+    private Duration idleTimeout;
+
+    @Value("${cluster.cache.service-name:}")
+    private String serviceName;
+
+    @Value("${cluster.cache.static-peers:}")
+    private String[] staticPeers;
+
+    @Value("${cluster.cache.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${cluster.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${cluster.cache.hot-key-threshold:3}")
+    private int hotKeyThreshold;
+
+    @Value("${cluster.cache.replica-ttl:1m}")
+    private Duration replicaTtl;
+
+    @Value("${cluster.cache.refresh-interval:15s}")
+    private Duration refreshInterval;
+
+    @Value("${cluster.cache.connect-timeout:100ms}")
+    private Duration connectTimeout;
+
+    @Value("${cluster.cache.read-timeout:250ms}")
+    private Duration readTimeout;
+
+    @Bean
+    public LocalCacheStore clusterCacheStore() {
+        return new LocalCacheStore(maxEntries);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheServer clusterCacheServer(LocalCacheStore clusterCacheStore) throws IOException {
+        if (!enabled) {
+            return CacheServer.disabled();
+        }
+        if (!StringUtils.hasText(secret) || secret.length() < 16) {
+            throw new IllegalStateException(
+                    "cluster.cache.secret must be set to at least 16 characters when the cluster cache is enabled");
+        }
+        String address = StringUtils.hasText(bindAddress) ? bindAddress : advertiseAddress;
+        CacheServer server = new CacheServer(address, port, clusterCacheStore, secret, maxConnections, idleTimeout);
+        server.start();
+        return server;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ClusterCache clusterCache(LocalCacheStore clusterCacheStore, CacheServer clusterCacheServer,
+                                     MeterRegistry meterRegistry) {
+        if (!enabled) {
+            return ClusterCache.disabled();
+        }
+        PeerDiscovery discovery = new DnsPeerDiscovery(serviceName, port,
+                Arrays.stream(staticPeers).filter(StringUtils::hasText).map(String::trim).toList());
+        // Clients drop pooled connections well before the peer's idle timeout closes them.
+        CacheClient client = new CacheClient(connectTimeout, readTimeout, maxIdlePerPeer, idleTimeout.dividedBy(2),
+                secret);
+        ClusterCache cache = new ClusterCache(advertiseAddress + ':' + clusterCacheServer.getPort(),
+                clusterCacheStore, client, discovery, virtualNodes, hotKeyThreshold, replicaTtl, meterRegistry);
+        cache.startDiscovery(refreshInterval);
+        return cache;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.springai.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring. Each node is placed at {@code virtualNodes} points so that
+ * key ranges stay balanced, and adding or removing a node only moves the keys it owns.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+
+        List<Point> ring = new ArrayList<>(this.nodes.size() * virtualNodes);
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.add(new Point(hash(node + '#' + i), node));
+            }
+        }
+        ring.sort(Comparator.comparingLong(Point::hash).thenComparing(Point::node));
+
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash();
+            owners[i] = ring.get(i).node();
+        }
+    }
+
+    public String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        return owners[indexFor(hash(key))];
+    }
+
+    /**
+     * The first {@code count} distinct nodes clockwise from the key, owner first.
+     */
+    public List<String> owners(String key, int count) {
+        List<String> result = new ArrayList<>(Math.min(count, nodes.size()));
+        if (points.length == 0) {
+            return result;
+        }
+        int start = indexFor(hash(key));
+        for (int i = 0; i < points.length && result.size() < count; i++) {
+            String node = owners[(start + i) % points.length];
+            if (!result.contains(node)) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    private int indexFor(long hash) {
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    // FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer for avalanche.
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Point(long hash, String node) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.springai.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves replicas through a headless Kubernetes service, whose DNS name returns one A record
+ * per ready pod, plus an optional static peer list. A failed lookup keeps the last known peers
+ * instead of collapsing the ring.
+ */
+public class DnsPeerDiscovery implements PeerDiscovery {
+
+    private static final Logger logger = LoggerFactory.getLogger(DnsPeerDiscovery.class);
+
+    private final String serviceName;
+    private final int port;
+    private final List<String> staticPeers;
+    private volatile List<String> lastResolved = List.of();
+
+    public DnsPeerDiscovery(String serviceName, int port, List<String> staticPeers) {
+        this.serviceName = serviceName;
+        this.port = port;
+        this.staticPeers = List.copyOf(staticPeers);
+    }
+
+    @Override
+    public List<String> discoverPeers() {
+        List<String> peers = new ArrayList<>(staticPeers);
+        if (StringUtils.hasText(serviceName)) {
+            try {
+                List<String> resolved = new ArrayList<>();
+                for (InetAddress address : InetAddress.getAllByName(serviceName)) {
+                    resolved.add(address.getHostAddress() + ':' + port);
+                }
+                lastResolved = resolved;
+            } catch (UnknownHostException e) {
+                logger.warn("Could not resolve cluster cache peers from {}: {}", serviceName, e.getMessage());
+            }
+            peers.addAll(lastResolved);
+        }
+        return peers;
+    }
+}
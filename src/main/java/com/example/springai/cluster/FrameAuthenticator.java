@@ -0,0 +1,92 @@
+package com.example.springai.cluster;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * Signs and verifies {@link CacheProtocol} frames with HMAC-SHA256 over a secret shared by
+ * all replicas, so that only holders of the secret can write or answer for cache entries.
+ * A response is signed together with the key it answers, so it cannot be replayed for
+ * another key. Frames that carry a value also sign their header, so the receiver can check
+ * the announced length before allocating a buffer for it.
+ */
+final class FrameAuthenticator {
+
+    static final int TAG_BYTES = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    FrameAuthenticator(String secret) {
+        if (secret == null || secret.length() < 16) {
+            throw new IllegalArgumentException("Cluster cache secret must be at least 16 characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    byte[] signRequest(byte op, String cacheKey, long ttlMillis, byte[] value) {
+        return sign((byte) 'Q', op, cacheKey, ttlMillis, length(value), value);
+    }
+
+    byte[] signResponse(byte status, String cacheKey, byte[] value) {
+        return sign((byte) 'R', status, cacheKey, 0L, length(value), value);
+    }
+
+    byte[] signRequestHeader(byte op, String cacheKey, long ttlMillis, int length) {
+        return sign((byte) 'q', op, cacheKey, ttlMillis, length, null);
+    }
+
+    byte[] signResponseHeader(byte status, String cacheKey, int length) {
+        return sign((byte) 'r', status, cacheKey, 0L, length, null);
+    }
+
+    boolean verifyRequest(byte[] tag, byte op, String cacheKey, long ttlMillis, byte[] value) {
+        return MessageDigest.isEqual(tag, signRequest(op, cacheKey, ttlMillis, value));
+    }
+
+    boolean verifyResponse(byte[] tag, byte status, String cacheKey, byte[] value) {
+        return MessageDigest.isEqual(tag, signResponse(status, cacheKey, value));
+    }
+
+    boolean verifyRequestHeader(byte[] tag, byte op, String cacheKey, long ttlMillis, int length) {
+        return MessageDigest.isEqual(tag, signRequestHeader(op, cacheKey, ttlMillis, length));
+    }
+
+    boolean verifyResponseHeader(byte[] tag, byte status, String cacheKey, int length) {
+        return MessageDigest.isEqual(tag, signResponseHeader(status, cacheKey, length));
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : -1;
+    }
+
+    private byte[] sign(byte direction, byte type, String cacheKey, long ttlMillis, int length, byte[] value) {
+        Mac mac = newMac();
+        mac.update(direction);
+        mac.update(type);
+        byte[] keyBytes = cacheKey.getBytes(StandardCharsets.UTF_8);
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(keyBytes.length).array());
+        mac.update(keyBytes);
+        mac.update(ByteBuffer.allocate(Long.BYTES).putLong(ttlMillis).array());
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(length).array());
+        if (value != null) {
+            mac.update(value);
+        }
+        return mac.doFinal();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
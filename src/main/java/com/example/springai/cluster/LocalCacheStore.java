@@ -0,0 +1,53 @@
+package com.example.springai.cluster;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of serialized values with per-entry expiry. Holds both the key range this
+ * replica owns and local replicas of hot keys owned by peers.
+ */
+public class LocalCacheStore {
+
+    private final Map<String, Entry> entries;
+
+    public LocalCacheStore(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public byte[] get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAtNanos > 0L) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    public void put(String key, byte[] value, Duration ttl) {
+        Entry entry = new Entry(value, System.nanoTime() + ttl.toNanos());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(byte[] value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.springai.cluster;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface PeerDiscovery {
+
+    /**
+     * Current cluster members as {@code host:port}, including this replica.
+     */
+    List<String> discoverPeers();
+}
@@ -0,0 +1,104 @@
+package com.example.springai.config;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits concurrent calls on the shared client, in total and per host. The dispatcher
+ * limits only apply to {@code enqueue()}, while every provider client here uses synchronous
+ * {@code execute()}. A call waits for a slot at most for its connect timeout and holds it
+ * until its response body is closed.
+ */
+public class ConcurrencyLimitInterceptor implements Interceptor {
+
+    private final Semaphore total;
+    private final int maxRequestsPerHost;
+    private final ConcurrentMap<String, Semaphore> hosts = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public ConcurrencyLimitInterceptor(int maxRequests, int maxRequestsPerHost) {
+        this.total = new Semaphore(maxRequests, true);
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        String host = chain.request().url().host();
+        Semaphore perHost = hosts.computeIfAbsent(host, h -> new Semaphore(maxRequestsPerHost, true));
+        long waitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, chain.connectTimeoutMillis()));
+        long start = System.nanoTime();
+
+        queued.incrementAndGet();
+        try {
+            if (!perHost.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                throw new InterruptedIOException("No free connection slot for " + host);
+            }
+            long leftNanos = Math.max(0L, waitNanos - (System.nanoTime() - start));
+            if (!total.tryAcquire(leftNanos, TimeUnit.NANOSECONDS)) {
+                perHost.release();
+                throw new InterruptedIOException("No free connection slot for " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection slot for " + host);
+        } finally {
+            queued.decrementAndGet();
+        }
+
+        running.incrementAndGet();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                running.decrementAndGet();
+                total.release();
+                perHost.release();
+            }
+        };
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            release.run();
+            throw e;
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            release.run();
+            return response;
+        }
+        ForwardingSource source = new ForwardingSource(body.source()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    release.run();
+                }
+            }
+        };
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(source), body.contentType(), body.contentLength()))
+                .build();
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.springai.config;
+
+import com.example.springai.deadline.DeadlineHttpInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One OkHttp connection pool and dispatcher shared by every upstream provider.
+ * Per-provider clients are derived with {@code newBuilder()}, which keeps the pool,
+ * dispatcher and event listener and only overrides timeouts and interceptors.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${http.client.read-timeout:20s}")
+    private Duration readTimeout;
+
+    @Value("${http.client.write-timeout:10s}")
+    private Duration writeTimeout;
+
+    @Value("${http.client.pool.max-idle-connections:32}")
+    private int maxIdleConnections;
+
+    @Value("${http.client.pool.keep-alive:5m}")
+    private Duration keepAlive;
+
+    @Value("${http.client.max-requests:128}")
+    private int maxRequests;
+
+    // Provider calls are already bounded by the adaptive limiter, so this must be at least
+    // ai.upstream.limit.max; otherwise a grown limiter fails calls here instead of queuing them.
+    @Value("${http.client.max-requests-per-host:${ai.upstream.limit.max:64}}")
+    private int maxRequestsPerHost;
+
+    @Value("${http.client.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Bean
+    public ConnectionPool httpConnectionPool(MeterRegistry meterRegistry) {
+        ConnectionPool pool = new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        new OkHttpConnectionPoolMetrics(pool, "http.client.pool", Tags.empty(), maxIdleConnections)
+                .bindTo(meterRegistry);
+        return pool;
+    }
+
+    // Request limits are enforced by ConcurrencyLimitInterceptor: dispatcher limits only apply
+    // to enqueue(), and every client here uses execute().
+    @Bean
+    public Dispatcher httpDispatcher() {
+        return new Dispatcher();
+    }
+
+    @Bean
+    public ConcurrencyLimitInterceptor httpConcurrencyLimitInterceptor(MeterRegistry meterRegistry) {
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(maxRequests, maxRequestsPerHost);
+        Gauge.builder("http.client.requests.running", interceptor, ConcurrencyLimitInterceptor::getRunning)
+                .description("Upstream HTTP calls currently executing")
+                .register(meterRegistry);
+        Gauge.builder("http.client.requests.queued", interceptor, ConcurrencyLimitInterceptor::getQueued)
+                .description("Upstream HTTP calls waiting for a connection slot")
+                .register(meterRegistry);
+        return interceptor;
+    }
+
+    @Bean
+    public OkHttpClient sharedHttpClient(ConnectionPool httpConnectionPool,
+                                         Dispatcher httpDispatcher,
+                                         ConcurrencyLimitInterceptor httpConcurrencyLimitInterceptor,
+                                         MeterRegistry meterRegistry) {
+        List<Protocol> protocols = http2Enabled
+                ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                : List.of(Protocol.HTTP_1_1);
+        return new OkHttpClient.Builder()
+                .connectionPool(httpConnectionPool)
+                .dispatcher(httpDispatcher)
+                .protocols(protocols)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .writeTimeout(writeTimeout)
+                .retryOnConnectionFailure(true)
+                .addInterceptor(new DeadlineHttpInterceptor())
+                .addInterceptor(httpConcurrencyLimitInterceptor)
+                .eventListener(OkHttpMetricsEventListener.builder(meterRegistry, "http.client.upstream.requests")
+                        .includeHostTag(true)
+                        .build())
+                .build();
+    }
+
+    // Spring AI's OpenAI client is built from the auto-configured RestClient.Builder.
+    // The OkHttp request factory is deprecated in Spring 6.1 but remains the only
+    // built-in adapter that can reuse this pool.
+    @Bean
+    @SuppressWarnings("removal")
+    public RestClientCustomizer sharedTransportRestClientCustomizer(
+            @Qualifier("sharedHttpClient") OkHttpClient sharedHttpClient) {
+        return builder -> builder.requestFactory(new OkHttp3ClientHttpRequestFactory(sharedHttpClient));
+    }
+
+    // Replaces the auto-configured OllamaApi, which would otherwise create its own RestClient.
+    @Bean
+    public OllamaApi ollamaApi(@Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl,
+                               RestClient.Builder restClientBuilder) {
+        return new OllamaApi(baseUrl, restClientBuilder);
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+}
@@ -1,15 +1,21 @@
 package com.example.springai.config;
 
+import com.example.springai.service.OpenAiStreamingClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.openai.OpenAiChatModel;
 import dev.langchain4j.model.openai.OpenAiEmbeddingModel;
-import dev.langchain4j.store.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import dev.langchain4j.memory.ChatMemory;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class LangChainConfig {
 
@@ -22,20 +28,50 @@ public class LangChainConfig {
     @Value("${langchain4j.open-ai.chat-model.temperature:0.7}")
     private Double temperature;
 
+    // Shared by the chat, embedding and streaming clients, so all of them reach the same provider.
+    @Value("${langchain4j.open-ai.base-url:https://api.openai.com/v1}")
+    private String baseUrl;
+
+    // The LangChain4j OpenAI client builds its own OkHttp instance, so only the
+    // shared timeout settings can be applied to it.
+    @Value("${http.client.read-timeout:20s}")
+    private Duration timeout;
+
+    @Value("${langchain4j.open-ai.max-retries:2}")
+    private Integer maxRetries;
+
+    @Value("${langchain4j.open-ai.embedding-model.model-name:text-embedding-ada-002}")
+    private String embeddingModelName;
+
     @Bean
     public ChatLanguageModel chatLanguageModel() {
         return OpenAiChatModel.builder()
+                .baseUrl(baseUrl)
                 .apiKey(openAiApiKey)
                 .modelName(modelName)
                 .temperature(temperature)
+                .timeout(timeout)
+                .maxRetries(maxRetries)
                 .build();
     }
 
+    // Streams on the shared client so an aborted stream can cancel its HTTP call. There are no
+    // retries: a stream that fails part-way cannot be resumed.
+    @Bean
+    public OpenAiStreamingClient openAiStreamingClient(@Qualifier("sharedHttpClient") OkHttpClient sharedHttpClient,
+                                                       ObjectMapper objectMapper) {
+        return new OpenAiStreamingClient(sharedHttpClient, baseUrl, openAiApiKey, modelName, temperature,
+                objectMapper);
+    }
+
     @Bean
     public EmbeddingModel embeddingModel() {
         return OpenAiEmbeddingModel.builder()
+                .baseUrl(baseUrl)
                 .apiKey(openAiApiKey)
-                .modelName("text-embedding-ada-002")
+                .modelName(embeddingModelName)
+                .timeout(timeout)
+                .maxRetries(maxRetries)
                 .build();
     }
 
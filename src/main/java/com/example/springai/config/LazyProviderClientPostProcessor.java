@@ -0,0 +1,45 @@
+package com.example.springai.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+import java.util.List;
+
+/**
+ * Marks the chat and embedding clients contributed by the Spring AI and LangChain4j
+ * starters as lazy so that providers which are never called do not build their HTTP
+ * clients during startup. Injection points that need them use {@code @Lazy} proxies.
+ */
+public class LazyProviderClientPostProcessor implements BeanFactoryPostProcessor {
+
+    private final List<String> lazyPackages;
+
+    public LazyProviderClientPostProcessor(List<String> lazyPackages) {
+        this.lazyPackages = lazyPackages;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (definition.isLazyInit() || !definition.isSingleton()) {
+                continue;
+            }
+            Class<?> type = beanFactory.getType(beanName, false);
+            if (type != null && isProviderClient(type.getName())) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private boolean isProviderClient(String typeName) {
+        for (String lazyPackage : lazyPackages) {
+            if (typeName.startsWith(lazyPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.springai.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class StartupConfig {
+
+    // Static so the post-processor is registered before regular beans are created;
+    // it cannot use @Value for the same reason.
+    @Bean
+    public static LazyProviderClientPostProcessor lazyProviderClientPostProcessor() {
+        return new LazyProviderClientPostProcessor(List.of(
+                "org.springframework.ai.openai.",
+                "org.springframework.ai.ollama.",
+                "dev.langchain4j.model."));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.springai.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Component
+public class StartupTimingReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingReporter.class);
+
+    @Value("${app.startup.report-top:10}")
+    private int reportTop;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        logger.info("Application ready in {} ms", event.getTimeTaken().toMillis());
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (reportTop <= 0 || !(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+
+        List<StartupTimeline.TimelineEvent> slowest = buffering.getBufferedTimeline().getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(reportTop)
+                .toList();
+        for (StartupTimeline.TimelineEvent timelineEvent : slowest) {
+            logger.info("Startup step {} ms: {}{}", timelineEvent.getDuration().toMillis(),
+                    timelineEvent.getStartupStep().getName(), describeTags(timelineEvent.getStartupStep()));
+        }
+    }
+
+    private String describeTags(StartupStep step) {
+        StringBuilder tags = new StringBuilder();
+        for (StartupStep.Tag tag : step.getTags()) {
+            tags.append(' ').append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return tags.toString();
+    }
+}
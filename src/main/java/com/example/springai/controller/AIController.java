@@ -1,21 +1,28 @@
 package com.example.springai.controller;
 
+import com.example.springai.deadline.DeadlineExecutor;
 import com.example.springai.dto.ChatRequest;
-import com.example.springai.dto.ChatResponse;
 import com.example.springai.dto.WorkflowRequest;
 import com.example.springai.dto.WorkflowResponse;
 import com.example.springai.langgraph.Workflow;
 import com.example.springai.langgraph.WorkflowService;
 import com.example.springai.langgraph.WorkflowState;
 import com.example.springai.langsmith.LangSmithTracer;
+import com.example.springai.metrics.AIMetrics;
+import com.example.springai.scheduling.FairScheduler;
+import com.example.springai.scheduling.Tenant;
+import com.example.springai.scheduling.TenantContext;
 import com.example.springai.service.LangChainService;
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import java.util.Map;
 
@@ -24,20 +31,31 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class AIController {
 
+    private static final long OUTPUT_TOKEN_ESTIMATE = 256;
+
     private final ChatClient springAiChatClient;
     private final LangChainService langChainService;
     private final WorkflowService workflowService;
     private final LangSmithTracer langSmithTracer;
+    private final AIMetrics aiMetrics;
+    private final FairScheduler upstreamScheduler;
+    private final DeadlineExecutor deadlineExecutor;
 
     @Autowired
-    public AIController(ChatClient springAiChatClient,
+    public AIController(@Lazy ChatClient springAiChatClient,
                        LangChainService langChainService,
                        WorkflowService workflowService,
-                       LangSmithTracer langSmithTracer) {
+                       LangSmithTracer langSmithTracer,
+                       AIMetrics aiMetrics,
+                       FairScheduler upstreamScheduler,
+                       DeadlineExecutor deadlineExecutor) {
         this.springAiChatClient = springAiChatClient;
         this.langChainService = langChainService;
         this.workflowService = workflowService;
         this.langSmithTracer = langSmithTracer;
+        this.aiMetrics = aiMetrics;
+        this.upstreamScheduler = upstreamScheduler;
+        this.deadlineExecutor = deadlineExecutor;
     }
 
     @PostMapping("/chat/spring-ai")
@@ -47,7 +65,7 @@ public class AIController {
         return langSmithTracer.traceExecution("spring-ai-chat",
                 Map.of("prompt", request.getMessage()),
                 () -> {
-                    ChatResponse response = springAiChatClient.call(new Prompt(request.getMessage()));
+                    ChatResponse response = callSpringAi(request.getMessage());
                     String content = response.getResult().getOutput().getContent();
                     
                     return ResponseEntity.ok(new com.example.springai.dto.ChatResponse(content));
@@ -78,6 +96,7 @@ public class AIController {
                     initialState.put("input", request.getInput());
                     
                     WorkflowState result = workflow.execute(initialState);
+                    aiMetrics.recordGenerations(result.get("generation_count", 0));
                     
                     WorkflowResponse response = new WorkflowResponse();
                     response.setResponse(result.get("response"));
@@ -111,6 +130,42 @@ public class AIController {
                 });
     }
 
+    private ChatResponse callSpringAi(String message) {
+        Tenant tenant = TenantContext.current();
+        return deadlineExecutor.call("chat", () -> upstreamScheduler.execute(tenant,
+                message.length() / 4 + 1 + OUTPUT_TOKEN_ESTIMATE, () -> timedSpringAiCall(message),
+                AIController::totalTokens));
+    }
+
+    private static long totalTokens(ChatResponse response) {
+        if (response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return 0L;
+        }
+        Long total = response.getMetadata().getUsage().getTotalTokens();
+        return total != null ? total : 0L;
+    }
+
+    private ChatResponse timedSpringAiCall(String message) {
+        Timer.Sample sample = aiMetrics.startTimer();
+        ChatResponse response;
+        try {
+            response = springAiChatClient.call(new Prompt(message));
+        } catch (RuntimeException e) {
+            aiMetrics.recordLlmCall("openai", "spring-ai", "chat", sample, AIMetrics.OUTCOME_ERROR);
+            throw e;
+        }
+        aiMetrics.recordLlmCall("openai", "spring-ai", "chat", sample, AIMetrics.OUTCOME_SUCCESS);
+        
+        if (response.getMetadata() != null) {
+            Usage usage = response.getMetadata().getUsage();
+            if (usage != null) {
+                aiMetrics.recordTokens("openai", "spring-ai", "chat",
+                        usage.getPromptTokens(), usage.getGenerationTokens());
+            }
+        }
+        return response;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of(
@@ -0,0 +1,66 @@
+package com.example.springai.deadline;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Time budget of a single request. Work started on behalf of the request registers a cancel
+ * hook, so that everything still in flight can be aborted once nobody will read the result.
+ */
+public final class Deadline {
+
+    private final long expiresAtNanos;
+    private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0L, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return cancelled || expiresAtNanos - System.nanoTime() <= 0L;
+    }
+
+    public boolean hasAtLeast(Duration budget) {
+        return !cancelled && expiresAtNanos - System.nanoTime() >= budget.toNanos();
+    }
+
+    public void check(String stage) {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Request deadline exceeded before " + stage);
+        }
+    }
+
+    public Registration onCancel(Runnable hook) {
+        cancelHooks.add(hook);
+        if (cancelled) {
+            hook.run();
+        }
+        return () -> cancelHooks.remove(hook);
+    }
+
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (Runnable hook : cancelHooks) {
+            hook.run();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
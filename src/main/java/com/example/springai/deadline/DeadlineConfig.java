@@ -0,0 +1,27 @@
+package com.example.springai.deadline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class DeadlineConfig implements WebMvcConfigurer {
+
+    @Value("${app.deadline.header:X-Request-Timeout}")
+    private String header;
+
+    @Value("${app.deadline.default-timeout:60s}")
+    private Duration defaultTimeout;
+
+    @Value("${app.deadline.max-timeout:120s}")
+    private Duration maxTimeout;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DeadlineInterceptor(header, defaultTimeout, maxTimeout))
+                .addPathPatterns("/api/**");
+    }
+}
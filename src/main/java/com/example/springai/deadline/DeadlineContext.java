@@ -0,0 +1,43 @@
+package com.example.springai.deadline;
+
+import java.time.Duration;
+
+/**
+ * Holds the deadline of the request being processed by the current thread.
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static Deadline attach(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+        return previous;
+    }
+
+    public static void check(String stage) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check(stage);
+        }
+    }
+
+    /**
+     * True when there is no deadline or at least {@code budget} of it is left.
+     */
+    public static boolean hasAtLeast(Duration budget) {
+        Deadline deadline = CURRENT.get();
+        return deadline == null || deadline.hasAtLeast(budget);
+    }
+}
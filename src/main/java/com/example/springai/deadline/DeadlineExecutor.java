@@ -0,0 +1,104 @@
+package com.example.springai.deadline;
+
+import com.example.springai.limiter.UpstreamSaturatedException;
+import com.example.springai.metrics.AIMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs upstream calls so that the caller waits no longer than the request deadline.
+ * The call executes on a worker thread that inherits the deadline; when the deadline
+ * expires the request is cancelled, which interrupts the worker and aborts any HTTP
+ * call it registered. Without a deadline the call runs inline.
+ * <p>
+ * Abandoned calls keep their worker until the provider returns, so the pool is bounded at
+ * twice the limiter's maximum: room for every permit plus one waiting call each. Calls beyond
+ * that are rejected with 503 instead of piling up threads while the provider is slow.
+ */
+@Component
+public class DeadlineExecutor {
+
+    private final AIMetrics aiMetrics;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public DeadlineExecutor(AIMetrics aiMetrics, @Value("${ai.upstream.limit.max:64}") int maxLimit) {
+        this.aiMetrics = aiMetrics;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, Math.max(1, maxLimit * 2), 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "upstream-call-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public <T> T call(String operation, Supplier<T> call) {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return call.get();
+        }
+        if (deadline.isExpired()) {
+            throw exceeded(operation);
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                Deadline previous = DeadlineContext.attach(deadline);
+                try {
+                    return call.get();
+                } finally {
+                    DeadlineContext.attach(previous);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new UpstreamSaturatedException("No upstream worker available for " + operation);
+        }
+        try (Deadline.Registration ignored = deadline.onCancel(() -> future.cancel(true))) {
+            return future.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            // The cancel hook is already deregistered here, so interrupt the worker directly.
+            future.cancel(true);
+            deadline.cancel();
+            throw exceeded(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            deadline.cancel();
+            throw exceeded(operation);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Upstream call failed: " + operation, cause);
+        }
+    }
+
+    private DeadlineExceededException exceeded(String operation) {
+        aiMetrics.recordDeadlineExceeded(operation);
+        return new DeadlineExceededException("Request deadline exceeded during " + operation);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
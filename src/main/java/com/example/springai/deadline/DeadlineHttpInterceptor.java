@@ -0,0 +1,43 @@
+package com.example.springai.deadline;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps OkHttp timeouts at the remaining request budget and registers the call with the
+ * deadline, so cancelling the request closes the upstream connection instead of waiting
+ * for the response. Calls made outside a request pass through unchanged.
+ */
+public class DeadlineHttpInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return chain.proceed(chain.request());
+        }
+        if (deadline.isExpired()) {
+            throw new InterruptedIOException("Request deadline exceeded before calling " + chain.request().url().host());
+        }
+
+        int remainingMillis = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, deadline.remaining().toMillis()));
+        Call call = chain.call();
+        try (Deadline.Registration ignored = deadline.onCancel(call::cancel)) {
+            return chain
+                    .withConnectTimeout(bound(chain.connectTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS)
+                    .withReadTimeout(bound(chain.readTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS)
+                    .withWriteTimeout(bound(chain.writeTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS)
+                    .proceed(chain.request());
+        }
+    }
+
+    // A configured timeout of zero means "no timeout" to OkHttp.
+    private int bound(int timeoutMillis, int remainingMillis) {
+        return timeoutMillis == 0 ? remainingMillis : Math.min(timeoutMillis, remainingMillis);
+    }
+}
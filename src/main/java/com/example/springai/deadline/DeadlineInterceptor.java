@@ -0,0 +1,58 @@
+package com.example.springai.deadline;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Starts the request deadline from the client's timeout header (plain milliseconds or a
+ * duration such as {@code 5s}), capped at the configured maximum. When the request completes,
+ * the deadline is cancelled so that abandoned upstream work does not keep running.
+ */
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    private final String header;
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+
+    public DeadlineInterceptor(String header, Duration defaultTimeout, Duration maxTimeout) {
+        this.header = header;
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        DeadlineContext.attach(Deadline.after(resolveTimeout(request.getHeader(header))));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Deadline deadline = DeadlineContext.attach(null);
+        if (deadline != null) {
+            deadline.cancel();
+        }
+    }
+
+    private Duration resolveTimeout(String value) {
+        if (!StringUtils.hasText(value)) {
+            return defaultTimeout;
+        }
+        try {
+            Duration requested = DurationStyle.detectAndParse(value.trim(), ChronoUnit.MILLIS);
+            if (requested.isNegative() || requested.isZero()) {
+                return defaultTimeout;
+            }
+            return requested.compareTo(maxTimeout) > 0 ? maxTimeout : requested;
+        } catch (IllegalArgumentException e) {
+            return defaultTimeout;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.springai.langgraph;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded LRU cache of node results, shared by all workflow executions. An entry is the
+ * state delta a node produced, keyed by the node name and a SHA-256 digest of the canonical
+ * JSON encoding of the state keys the node declared as its inputs. Entries expire after the
+ * configured TTL, and the cache is bounded both by entry count and by the approximate size of
+ * the deltas.
+ */
+public class NodeCache {
+
+    // Sorted properties and map keys make equal inputs encode to the same bytes.
+    private static final ObjectMapper KEY_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final MeterRegistry registry;
+    private final Map<Key, Entry> entries;
+    private final Counter evictions;
+    private final ConcurrentMap<String, Counter> lookups = new ConcurrentHashMap<>();
+    private long bytes;
+
+    public NodeCache(int maxEntries, long maxBytes, Duration ttl, MeterRegistry registry) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl.toNanos();
+        this.registry = registry;
+        this.evictions = Counter.builder("workflow.node.cache.evictions")
+                .description("Node results evicted from the workflow cache")
+                .register(registry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        Gauge.builder("workflow.node.cache.size", this, NodeCache::size)
+                .description("Node results held in the workflow cache")
+                .register(registry);
+        Gauge.builder("workflow.node.cache.bytes", this, NodeCache::bytes)
+                .description("Approximate size of the node results held in the workflow cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Builds the key from the JSON encoding of the declared inputs, so every property of a
+     * value takes part in the key, not just what its {@code toString} shows.
+     *
+     * @throws IllegalArgumentException if an input value cannot be serialized to JSON
+     */
+    public static Key key(String nodeName, WorkflowState state, List<String> inputKeys) {
+        Map<String, Object> inputs = new LinkedHashMap<>();
+        for (String inputKey : inputKeys) {
+            inputs.put(inputKey, state.get(inputKey));
+        }
+        byte[] encoded;
+        try {
+            encoded = KEY_MAPPER.writeValueAsBytes(inputs);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Inputs of node " + nodeName + " cannot be encoded as a cache key", e);
+        }
+        return new Key(nodeName, HexFormat.of().formatHex(sha256().digest(encoded)));
+    }
+
+    public Map<String, Object> get(Key key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAtNanos > 0L) {
+                entries.remove(key);
+                bytes -= entry.bytes;
+                entry = null;
+            }
+        }
+        recordLookup(key.nodeName(), entry != null);
+        return entry != null ? entry.delta : null;
+    }
+
+    public void put(Key key, Map<String, Object> delta) {
+        Entry entry = new Entry(Map.copyOf(delta), System.nanoTime() + ttlNanos, estimateBytes(key, delta));
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            bytes += entry.bytes - (previous != null ? previous.bytes : 0L);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().bytes;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    // Strings dominate the deltas; other values are counted at a flat rate.
+    private static long estimateBytes(Key key, Map<String, Object> delta) {
+        long size = 64L + 2L * (key.nodeName().length() + key.digest().length());
+        for (Map.Entry<String, Object> field : delta.entrySet()) {
+            size += 32L + 2L * field.getKey().length();
+            size += field.getValue() instanceof CharSequence text ? 40L + 2L * text.length() : 32L;
+        }
+        return size;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void recordLookup(String nodeName, boolean hit) {
+        String result = hit ? "hit" : "miss";
+        lookups.computeIfAbsent(nodeName + '|' + result, k -> Counter.builder("workflow.node.cache")
+                .description("Workflow node cache lookups")
+                .tag("node", nodeName)
+                .tag("result", result)
+                .register(registry))
+                .increment();
+    }
+
+    public record Key(String nodeName, String digest) {
+    }
+
+    private record Entry(Map<String, Object> delta, long expiresAtNanos, long bytes) {
+    }
+}
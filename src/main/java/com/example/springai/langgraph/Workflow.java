@@ -1,5 +1,7 @@
 package com.example.springai.langgraph;
 
+import com.example.springai.deadline.DeadlineContext;
+
 import java.util.*;
 import java.util.function.Function;
 
@@ -8,11 +10,15 @@ public class Workflow {
     private final Map<String, Function<WorkflowState, String>> edges;
     private String startNode;
     private final Set<String> endNodes;
+    private final Map<String, List<String>> cacheableInputs;
+    private WorkflowListener listener;
+    private NodeCache nodeCache;
     
     public Workflow() {
         this.nodes = new HashMap<>();
         this.edges = new HashMap<>();
         this.endNodes = new HashSet<>();
+        this.cacheableInputs = new HashMap<>();
     }
     
     public Workflow addNode(String name, WorkflowNode node) {
@@ -20,6 +26,16 @@ public class Workflow {
         return this;
     }
     
+    /**
+     * Adds a node whose state changes depend only on the given input keys, so its result
+     * can be reused for any state with the same values for those keys.
+     */
+    public Workflow addCacheableNode(String name, WorkflowNode node, String... inputKeys) {
+        nodes.put(name, node);
+        cacheableInputs.put(name, List.of(inputKeys));
+        return this;
+    }
+    
     public Workflow addEdge(String from, String to) {
         edges.put(from, state -> to);
         return this;
@@ -40,6 +56,16 @@ public class Workflow {
         return this;
     }
     
+    public Workflow setListener(WorkflowListener listener) {
+        this.listener = listener;
+        return this;
+    }
+    
+    public Workflow setNodeCache(NodeCache nodeCache) {
+        this.nodeCache = nodeCache;
+        return this;
+    }
+    
     public WorkflowState execute(WorkflowState initialState) {
         if (startNode == null) {
             throw new IllegalStateException("Start node not set");
@@ -53,8 +79,9 @@ public class Workflow {
             if (node == null) {
                 throw new IllegalStateException("Node not found: " + currentNode);
             }
+            DeadlineContext.check("workflow node " + currentNode);
             
-            currentState = node.execute(currentState);
+            currentState = executeNode(currentNode, node, currentState);
             
             Function<WorkflowState, String> edge = edges.get(currentNode);
             if (edge != null) {
@@ -67,6 +94,52 @@ public class Workflow {
         return currentState;
     }
     
+    private WorkflowState executeNode(String nodeName, WorkflowNode node, WorkflowState state) {
+        if (listener == null) {
+            return executeOrReuse(nodeName, node, state);
+        }
+        
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            WorkflowState result = executeOrReuse(nodeName, node, state);
+            success = true;
+            return result;
+        } finally {
+            listener.onNodeExecuted(nodeName, System.nanoTime() - start, success);
+        }
+    }
+    
+    private WorkflowState executeOrReuse(String nodeName, WorkflowNode node, WorkflowState state) {
+        List<String> inputKeys = cacheableInputs.get(nodeName);
+        if (nodeCache == null || inputKeys == null) {
+            WorkflowState result = node.execute(state);
+            result.takeSkipCache();
+            return result;
+        }
+        
+        NodeCache.Key key = NodeCache.key(nodeName, state, inputKeys);
+        Map<String, Object> cached = nodeCache.get(key);
+        if (cached != null) {
+            state.putAll(cached);
+            return state;
+        }
+        
+        Map<String, Object> before = state.getData();
+        WorkflowState result = node.execute(state);
+        if (result.takeSkipCache()) {
+            return result;
+        }
+        Map<String, Object> delta = new HashMap<>();
+        result.getData().forEach((stateKey, value) -> {
+            if (value != null && !value.equals(before.get(stateKey))) {
+                delta.put(stateKey, value);
+            }
+        });
+        nodeCache.put(key, delta);
+        return result;
+    }
+    
     public Set<String> getNodeNames() {
         return new HashSet<>(nodes.keySet());
     }
@@ -0,0 +1,27 @@
+package com.example.springai.langgraph;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+public class WorkflowCacheConfig {
+
+    @Value("${workflow.cache.max-entries:2000}")
+    private int maxEntries;
+
+    @Value("${workflow.cache.max-size:32MB}")
+    private DataSize maxSize;
+
+    @Value("${workflow.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Bean
+    public NodeCache workflowNodeCache(MeterRegistry meterRegistry) {
+        return new NodeCache(maxEntries, maxSize.toBytes(), ttl, meterRegistry);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.springai.langgraph;
+
+@FunctionalInterface
+public interface WorkflowListener {
+    void onNodeExecuted(String nodeName, long durationNanos, boolean success);
+}
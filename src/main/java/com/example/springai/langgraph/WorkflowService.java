@@ -1,59 +1,148 @@
 package com.example.springai.langgraph;
 
+import com.example.springai.analysis.TextAnalyzer;
+import com.example.springai.analysis.TextFeatures;
+import com.example.springai.deadline.DeadlineContext;
+import com.example.springai.local.LocalModelService;
+import com.example.springai.local.LocalModelTasks;
+import com.example.springai.metrics.AIMetrics;
+import com.example.springai.review.ResponseReviewer;
 import com.example.springai.service.LangChainService;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+
 @Service
 public class WorkflowService {
     
     private final LangChainService langChainService;
+    private final AIMetrics aiMetrics;
+    private final TextAnalyzer textAnalyzer;
+    private final NodeCache nodeCache;
+    private final ResponseReviewer responseReviewer;
+    private final LocalModelTasks localModelTasks;
+    
+    @Value("${workflow.cache.enabled:true}")
+    private boolean cacheEnabled;
+    
+    // Off by default: chat memory makes responses depend on more than the prompt.
+    @Value("${workflow.cache.generate-enabled:false}")
+    private boolean cacheGenerate;
+    
+    // Review is only worth starting if a regeneration can still finish in time.
+    @Value("${workflow.review.min-remaining:15s}")
+    private Duration reviewMinRemaining;
+    
+    // Reviews the response while it streams and aborts it on the first failed rule, instead
+    // of running the review node after every complete generation.
+    @Value("${workflow.review.streaming:true}")
+    private boolean streamingReview;
+    
+    // "local" or "local:<model>" hands the node's judgement to the local model; anything else
+    // keeps the built-in lexicon and review rules. Generation always uses the remote model.
+    @Value("${workflow.models.analyze:lexicon}")
+    private String analyzeModel;
+    
+    @Value("${workflow.models.review:rules}")
+    private String reviewModel;
     
     @Autowired
-    public WorkflowService(LangChainService langChainService) {
+    public WorkflowService(LangChainService langChainService, AIMetrics aiMetrics,
+                           TextAnalyzer textAnalyzer, NodeCache nodeCache,
+                           ResponseReviewer responseReviewer, LocalModelService localModelService) {
         this.langChainService = langChainService;
+        this.aiMetrics = aiMetrics;
+        this.textAnalyzer = textAnalyzer;
+        this.nodeCache = nodeCache;
+        this.responseReviewer = responseReviewer;
+        this.localModelTasks = new LocalModelTasks(localModelService);
     }
     
     public Workflow createSampleWorkflow() {
-        return new Workflow()
-            .addNode("input", this::processInput)
-            .addNode("analyze", this::analyzeContent)
-            .addNode("generate", this::generateResponse)
+        Workflow workflow = new Workflow()
+            .addCacheableNode("input", this::processInput, "input")
+            .addCacheableNode("analyze", this::analyzeContent, "text_features", "processed_input")
             .addNode("review", this::reviewResponse)
             .addEdge("input", "analyze")
             .addEdge("analyze", "generate")
             .addConditionalEdge("generate", this::shouldReview)
             .addEdge("review", "generate")
             .setEntryPoint("input")
-            .addEndNode("generate");
+            .setListener(aiMetrics::recordNode);
+        
+        if (cacheGenerate) {
+            workflow.addCacheableNode("generate", this::generateResponse, "input", "needs_review",
+                    "review_feedback", "response", "is_question", "is_request", "generation_count");
+        } else {
+            workflow.addNode("generate", this::generateResponse);
+        }
+        if (cacheEnabled) {
+            workflow.setNodeCache(nodeCache);
+        }
+        return workflow;
     }
     
     private WorkflowState processInput(WorkflowState state) {
         String input = state.get("input", "");
+        TextFeatures features = textAnalyzer.analyze(input);
         state.put("processed_input", input.trim().toLowerCase());
-        state.put("word_count", input.split("\\s+").length);
+        state.put("word_count", features.getWordCount());
+        state.put("text_features", features);
         return state;
     }
     
     private WorkflowState analyzeContent(WorkflowState state) {
-        String input = state.get("processed_input", "");
-        
-        boolean isQuestion = input.contains("?");
-        boolean isRequest = input.contains("please") || input.contains("can you");
+        TextFeatures features = state.get("text_features");
+        if (features == null) {
+            features = textAnalyzer.analyze(state.get("processed_input", ""));
+        }
+        String model = localModel(analyzeModel);
+        if (model != null) {
+            TextFeatures classified = localModelTasks.classify(model, state.get("processed_input", ""), features);
+            // The lexicon fallback is not what the local model would answer once it is
+            // available again, so it must not be replayed from the cache.
+            if (classified == features) {
+                state.skipCache();
+            }
+            features = classified;
+        }
         
-        state.put("is_question", isQuestion);
-        state.put("is_request", isRequest);
-        state.put("sentiment", analyzeSentiment(input));
+        state.put("is_question", features.isQuestion());
+        state.put("is_request", features.isRequest());
+        state.put("sentiment", features.getSentiment());
         
         return state;
     }
     
     private WorkflowState generateResponse(WorkflowState state) {
-        String input = state.get("input", "");
         boolean needsReview = state.get("needs_review", false);
         
         String prompt = buildPrompt(state, needsReview);
-        String response = langChainService.generateResponse(prompt);
+        String response;
+        if (streamingReview) {
+            // Only cut a failing stream short when another attempt can follow; the last attempt
+            // streams to the end so that the caller never gets a truncated response.
+            boolean canRetry = state.get("generation_count", 0) + 1 < 3
+                    && DeadlineContext.hasAtLeast(reviewMinRemaining);
+            ResponseReviewer.Session review = responseReviewer.start();
+            response = langChainService.streamResponse(buildMessages(state, prompt, needsReview),
+                    token -> review.accept(token) || !canRetry);
+            boolean aborted = review.isAborted() && canRetry;
+            boolean passed = review.complete(response);
+            String feedback = passed ? reviewLocally(state, response) : review.getFeedback();
+            passed = feedback == null;
+            recordReviewResult(state, passed, feedback);
+            state.put("response_aborted", aborted);
+            aiMetrics.recordStreamedReview(passed ? "passed" : aborted ? "aborted" : "failed");
+        } else {
+            response = langChainService.generateResponse(prompt);
+        }
         
         state.put("response", response);
         state.put("generation_count", state.get("generation_count", 0) + 1);
@@ -64,28 +153,84 @@ public class WorkflowService {
     private WorkflowState reviewResponse(WorkflowState state) {
         String response = state.get("response", "");
         
-        boolean isAppropriate = response.length() > 10 && !response.contains("error");
-        state.put("review_passed", isAppropriate);
-        state.put("needs_review", !isAppropriate);
-        
-        if (!isAppropriate) {
-            state.put("review_feedback", "Response needs improvement");
+        String feedback = responseReviewer.review(response);
+        if (feedback == null) {
+            feedback = reviewLocally(state, response);
         }
+        recordReviewResult(state, feedback == null, feedback);
         
         return state;
     }
     
+    // Only runs once the rules have passed, so the local model never sees responses the rules
+    // already rejected. An unavailable or unclear local verdict does not fail the response.
+    private String reviewLocally(WorkflowState state, String response) {
+        String model = localModel(reviewModel);
+        if (model == null) {
+            return null;
+        }
+        return localModelTasks.review(model, state.get("input", ""), response);
+    }
+    
+    // Returns the local model a node is routed to, "" meaning the default local model, or null
+    // when the node does not use the local model.
+    private static String localModel(String route) {
+        if (route.equals("local")) {
+            return "";
+        }
+        return route.startsWith("local:") ? route.substring("local:".length()) : null;
+    }
+    
+    private void recordReviewResult(WorkflowState state, boolean passed, String feedback) {
+        state.put("review_passed", passed);
+        state.put("needs_review", !passed);
+        
+        if (!passed) {
+            state.put("review_feedback", feedback);
+        }
+    }
+    
     private String shouldReview(WorkflowState state) {
         int generationCount = state.get("generation_count", 0);
         boolean needsReview = state.get("needs_review", false);
         
-        if (generationCount == 1 && !needsReview) {
-            return "review";
-        } else if (needsReview && generationCount < 3) {
-            return "review";
+        // A streamed response has already been reviewed, so only a failed one goes anywhere:
+        // straight back to generate.
+        String next;
+        if (streamingReview) {
+            // A truncated response must never be returned, whatever budget is left.
+            if (state.get("response_aborted", false)) {
+                return "generate";
+            }
+            next = needsReview && generationCount < 3 ? "generate" : null;
+        } else {
+            boolean wantsReview = (generationCount == 1 && !needsReview)
+                    || (needsReview && generationCount < 3);
+            next = wantsReview ? "review" : null;
+        }
+        if (next == null) {
+            return null;
         }
         
-        return null;
+        if (!DeadlineContext.hasAtLeast(reviewMinRemaining)) {
+            state.put("review_skipped", true);
+            return null;
+        }
+        
+        return next;
+    }
+    
+    // Streamed generations do not go through chat memory, so the rejected response is passed
+    // back explicitly for the model to improve on.
+    private List<ChatMessage> buildMessages(WorkflowState state, String prompt, boolean needsReview) {
+        String previous = state.get("response", "");
+        if (!needsReview || previous.isEmpty()) {
+            return List.of(UserMessage.from(prompt));
+        }
+        return List.of(
+                UserMessage.from(buildPrompt(state, false)),
+                AiMessage.from(previous),
+                UserMessage.from(prompt));
     }
     
     private String buildPrompt(WorkflowState state, boolean needsReview) {
@@ -111,13 +256,4 @@ public class WorkflowService {
         
         return prompt.toString();
     }
-    
-    private String analyzeSentiment(String text) {
-        if (text.contains("great") || text.contains("awesome") || text.contains("good")) {
-            return "positive";
-        } else if (text.contains("bad") || text.contains("terrible") || text.contains("awful")) {
-            return "negative";
-        }
-        return "neutral";
-    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import java.util.Map;
 
 public class WorkflowState {
     private final Map<String, Object> data;
+    private boolean skipCache;
     
     public WorkflowState() {
         this.data = new HashMap<>();
@@ -40,6 +41,20 @@ public class WorkflowState {
         return new HashMap<>(data);
     }
     
+    /**
+     * Keeps the result of the node being executed out of the node cache, for results that
+     * should not be replayed, such as a fallback taken because a dependency was unavailable.
+     */
+    public void skipCache() {
+        skipCache = true;
+    }
+    
+    boolean takeSkipCache() {
+        boolean skip = skipCache;
+        skipCache = false;
+        return skip;
+    }
+    
     public WorkflowState copy() {
         return new WorkflowState(this.data);
     }
@@ -1,10 +1,15 @@
 package com.example.springai.langsmith;
 
 import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 
 @Configuration
@@ -19,12 +24,23 @@ public class LangSmithConfig {
     @Value("${langsmith.project-name:spring-ai-demo}")
     private String projectName;
 
+    @Value("${langsmith.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${langsmith.spool.dir:${java.io.tmpdir}/langsmith-spool}")
+    private String spoolDir;
+
+    @Value("${langsmith.spool.segment-size:16MB}")
+    private DataSize spoolSegmentSize;
+
+    @Value("${langsmith.spool.max-size:512MB}")
+    private DataSize spoolMaxSize;
+
     @Bean
-    public OkHttpClient langSmithHttpClient() {
-        return new OkHttpClient.Builder()
-                .connectTimeout(Duration.ofSeconds(30))
-                .readTimeout(Duration.ofSeconds(30))
-                .writeTimeout(Duration.ofSeconds(30))
+    public OkHttpClient langSmithHttpClient(@Qualifier("sharedHttpClient") OkHttpClient sharedHttpClient) {
+        return sharedHttpClient.newBuilder()
+                .readTimeout(readTimeout)
+                .writeTimeout(readTimeout)
                 .addInterceptor(chain -> {
                     var request = chain.request().newBuilder()
                             .addHeader("Authorization", "Bearer " + apiKey)
@@ -36,6 +52,11 @@ public class LangSmithConfig {
                 .build();
     }
 
+    @Bean(destroyMethod = "close")
+    public TraceSpool traceSpool() throws IOException {
+        return new TraceSpool(Path.of(spoolDir), spoolSegmentSize.toBytes(), spoolMaxSize.toBytes());
+    }
+
     public String getApiKey() {
         return apiKey;
     }
@@ -1,7 +1,5 @@
 package com.example.springai.langsmith;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,31 +8,30 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 @Service
 public class LangSmithTracer {
     
     private static final Logger logger = LoggerFactory.getLogger(LangSmithTracer.class);
-    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
     
-    private final OkHttpClient httpClient;
     private final LangSmithConfig config;
-    private final ObjectMapper objectMapper;
+    private final TraceEncoder traceEncoder;
+    private final TraceSpool traceSpool;
     
     @Autowired
-    public LangSmithTracer(OkHttpClient langSmithHttpClient, 
-                          LangSmithConfig config) {
-        this.httpClient = langSmithHttpClient;
+    public LangSmithTracer(LangSmithConfig config,
+                          TraceEncoder traceEncoder,
+                          TraceSpool traceSpool) {
         this.config = config;
-        this.objectMapper = new ObjectMapper();
+        this.traceEncoder = traceEncoder;
+        this.traceSpool = traceSpool;
     }
     
     public TraceData startTrace(String name, Map<String, Object> inputs) {
         TraceData trace = new TraceData();
         trace.setProjectName(config.getProjectName());
         trace.setName(name);
-        trace.setInputs(inputs);
+        trace.setInputs(traceEncoder.encodeInputs(inputs));
         trace.setStartTime(Instant.now());
         trace.setTags(new String[]{"spring-ai", "java"});
         
@@ -46,36 +43,21 @@ public class LangSmithTracer {
         trace.setEndTime(Instant.now());
         trace.setOutputs(outputs);
         
-        CompletableFuture.runAsync(() -> sendTraceAsync(trace));
+        submit(trace);
     }
     
     public void endTraceWithError(TraceData trace, String error) {
         trace.setEndTime(Instant.now());
         trace.setError(error);
         
-        CompletableFuture.runAsync(() -> sendTraceAsync(trace));
+        submit(trace);
     }
     
-    private void sendTraceAsync(TraceData trace) {
+    private void submit(TraceData trace) {
         try {
-            String jsonPayload = objectMapper.writeValueAsString(trace);
-            
-            RequestBody body = RequestBody.create(jsonPayload, JSON);
-            Request request = new Request.Builder()
-                    .url(config.getEndpoint() + "/runs")
-                    .post(body)
-                    .build();
-            
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    logger.warn("Failed to send trace to LangSmith: {} - {}", 
-                              response.code(), response.message());
-                } else {
-                    logger.debug("Successfully sent trace: {}", trace.getId());
-                }
-            }
+            traceSpool.append(traceEncoder.toJson(trace));
         } catch (IOException e) {
-            logger.error("Error sending trace to LangSmith", e);
+            logger.error("Error spooling trace {}", trace.getId(), e);
         }
     }
     
@@ -87,8 +69,7 @@ public class LangSmithTracer {
         try {
             T result = operation.execute();
             
-            Map<String, Object> outputs = Map.of("result", result);
-            endTrace(trace, outputs);
+            endTrace(trace, traceEncoder.encodeOutput(result));
             
             return result;
         } catch (Exception e) {
@@ -0,0 +1,308 @@
+package com.example.springai.langsmith;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Turns trace inputs and outputs into bounded summaries and serializes trace payloads.
+ * Strings are truncated, collections are capped, primitive arrays such as embedding
+ * vectors are replaced by their dimension and a content hash, so the encoded size no
+ * longer grows with the size of the response. Objects are walked through their Jackson
+ * properties one level at a time, so only the parts that survive the caps are ever read.
+ */
+@Component
+public class TraceEncoder {
+
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${langsmith.encoding.max-string-length:2048}")
+    private int maxStringLength;
+
+    @Value("${langsmith.encoding.max-collection-items:32}")
+    private int maxCollectionItems;
+
+    @Value("${langsmith.encoding.max-depth:4}")
+    private int maxDepth;
+
+    @Value("${langsmith.encoding.compression:gzip}")
+    private String compression;
+
+    @Value("${langsmith.encoding.compression-min-bytes:1024}")
+    private int compressionMinBytes;
+
+    private final ThreadLocal<ReusableBuffer> jsonBuffers = ThreadLocal.withInitial(ReusableBuffer::new);
+    private final ThreadLocal<ReusableBuffer> compressedBuffers = ThreadLocal.withInitial(ReusableBuffer::new);
+
+    @Autowired
+    public TraceEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Map<String, Object> encodeInputs(Map<String, Object> inputs) {
+        if (inputs == null) {
+            return null;
+        }
+        return summarizeMap(inputs, 0);
+    }
+
+    public Map<String, Object> encodeOutput(Object result) {
+        Map<String, Object> outputs = new LinkedHashMap<>();
+        if (result instanceof ResponseEntity<?> entity) {
+            outputs.put("status_code", entity.getStatusCode().value());
+            outputs.put("result", summarize(entity.getBody(), 0));
+        } else {
+            outputs.put("result", summarize(result, 0));
+        }
+        return outputs;
+    }
+
+    public Object summarize(Object value, int depth) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof CharSequence text) {
+            return truncate(text);
+        }
+        if (value instanceof Enum<?> || value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        if (value.getClass().isArray()) {
+            return summarizeArray(value, depth);
+        }
+        if (depth >= maxDepth) {
+            return "<" + value.getClass().getSimpleName() + ">";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return summarizeMap(map, depth);
+        }
+        if (value instanceof Collection<?> collection) {
+            return summarizeCollection(collection, collection.size(), depth);
+        }
+        if (value instanceof JsonNode node) {
+            return summarizeNode(node, depth);
+        }
+        JsonSerializer<Object> serializer;
+        try {
+            serializer = objectMapper.getSerializerProviderInstance().findValueSerializer(value.getClass());
+        } catch (JsonMappingException e) {
+            return truncate(String.valueOf(value));
+        }
+        if (serializer instanceof BeanSerializerBase bean) {
+            return summarizeBean(value, bean, depth);
+        }
+        return truncate(String.valueOf(value));
+    }
+
+    private Object summarizeBean(Object value, BeanSerializerBase serializer, int depth) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        int properties = 0;
+        Iterator<PropertyWriter> writers = serializer.properties();
+        while (writers.hasNext()) {
+            if (!(writers.next() instanceof BeanPropertyWriter writer)) {
+                continue;
+            }
+            if (properties++ >= maxCollectionItems) {
+                continue;
+            }
+            try {
+                summary.put(writer.getName(), summarize(writer.get(value), depth + 1));
+            } catch (Exception e) {
+                summary.put(writer.getName(), "<unreadable>");
+            }
+        }
+        if (properties > maxCollectionItems) {
+            summary.put("_truncated_entries", properties - maxCollectionItems);
+        }
+        return summary;
+    }
+
+    private Object summarizeNode(JsonNode node, int depth) {
+        if (node.isTextual()) {
+            return truncate(node.textValue());
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        if (depth >= maxDepth) {
+            return "<" + node.getNodeType() + ">";
+        }
+        if (node.isArray()) {
+            return summarizeCollection(node, node.size(), depth);
+        }
+        if (node.isObject()) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            int items = 0;
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext() && items++ < maxCollectionItems) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                summary.put(field.getKey(), summarizeNode(field.getValue(), depth + 1));
+            }
+            if (node.size() > maxCollectionItems) {
+                summary.put("_truncated_entries", node.size() - maxCollectionItems);
+            }
+            return summary;
+        }
+        return truncate(node.asText());
+    }
+
+    private Map<String, Object> summarizeMap(Map<?, ?> map, int depth) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        int items = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (items++ >= maxCollectionItems) {
+                summary.put("_truncated_entries", map.size() - maxCollectionItems);
+                break;
+            }
+            summary.put(String.valueOf(entry.getKey()), summarize(entry.getValue(), depth + 1));
+        }
+        return summary;
+    }
+
+    private Object summarizeCollection(Iterable<?> items, int size, int depth) {
+        List<Object> head = new ArrayList<>(Math.min(size, maxCollectionItems));
+        for (Object item : items) {
+            if (head.size() >= maxCollectionItems) {
+                break;
+            }
+            head.add(summarize(item, depth + 1));
+        }
+        if (size <= maxCollectionItems) {
+            return head;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("size", size);
+        summary.put("head", head);
+        return summary;
+    }
+
+    private Object summarizeArray(Object array, int depth) {
+        if (!array.getClass().getComponentType().isPrimitive()) {
+            Object[] objects = (Object[]) array;
+            return summarizeCollection(Arrays.asList(objects), objects.length, depth);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", array.getClass().getComponentType().getName() + "[]");
+        summary.put("dimension", Array.getLength(array));
+        summary.put("hash", Integer.toHexString(primitiveArrayHash(array)));
+        return summary;
+    }
+
+    private int primitiveArrayHash(Object array) {
+        if (array instanceof float[] floats) {
+            return Arrays.hashCode(floats);
+        } else if (array instanceof double[] doubles) {
+            return Arrays.hashCode(doubles);
+        } else if (array instanceof int[] ints) {
+            return Arrays.hashCode(ints);
+        } else if (array instanceof long[] longs) {
+            return Arrays.hashCode(longs);
+        } else if (array instanceof byte[] bytes) {
+            return Arrays.hashCode(bytes);
+        } else if (array instanceof short[] shorts) {
+            return Arrays.hashCode(shorts);
+        } else if (array instanceof char[] chars) {
+            return Arrays.hashCode(chars);
+        }
+        return Arrays.hashCode((boolean[]) array);
+    }
+
+    private String truncate(CharSequence text) {
+        int length = text.length();
+        if (length <= maxStringLength) {
+            return text.toString();
+        }
+        return text.subSequence(0, maxStringLength) + "...[truncated " + (length - maxStringLength) + " chars]";
+    }
+
+    public byte[] toJson(Object payload) throws IOException {
+        ReusableBuffer json = jsonBuffers.get();
+        json.reset();
+        try {
+            objectMapper.writeValue(json, payload);
+            return json.toByteArray();
+        } finally {
+            releaseIfOversized(jsonBuffers, json);
+        }
+    }
+
+    public EncodedPayload encodeBody(byte[] json) throws IOException {
+        if (!"gzip".equalsIgnoreCase(compression) || json.length < compressionMinBytes) {
+            return new EncodedPayload(json, null);
+        }
+
+        ReusableBuffer compressed = compressedBuffers.get();
+        compressed.reset();
+        try {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192)) {
+                gzip.write(json);
+            }
+            return new EncodedPayload(compressed.toByteArray(), "gzip");
+        } finally {
+            releaseIfOversized(compressedBuffers, compressed);
+        }
+    }
+
+    private void releaseIfOversized(ThreadLocal<ReusableBuffer> pool, ReusableBuffer buffer) {
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            pool.remove();
+        }
+    }
+
+    public static class EncodedPayload {
+        private final byte[] body;
+        private final String contentEncoding;
+
+        public EncodedPayload(byte[] body, String contentEncoding) {
+            this.body = body;
+            this.contentEncoding = contentEncoding;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+    }
+
+    private static class ReusableBuffer extends ByteArrayOutputStream {
+        ReusableBuffer() {
+            super(8192);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
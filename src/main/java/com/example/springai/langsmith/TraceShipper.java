@@ -0,0 +1,192 @@
+package com.example.springai.langsmith;
+
+import com.example.springai.metrics.AIMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the {@link TraceSpool} to LangSmith's batch endpoint on a single background thread.
+ * The checkpoint only advances after LangSmith accepted a batch; transport errors, 429 and 5xx
+ * responses are retried with exponential backoff, other 4xx responses drop the batch.
+ */
+@Component
+public class TraceShipper {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceShipper.class);
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final byte[] BATCH_PREFIX = "{\"post\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final OkHttpClient httpClient;
+    private final LangSmithConfig config;
+    private final TraceSpool spool;
+    private final TraceEncoder traceEncoder;
+    private final AIMetrics aiMetrics;
+    private final Counter rejectedTraces;
+    private final ScheduledExecutorService executor;
+
+    @Value("${langsmith.shipper.batch-size:100}")
+    private int batchSize;
+
+    @Value("${langsmith.shipper.batch-bytes:1MB}")
+    private DataSize batchBytes;
+
+    @Value("${langsmith.shipper.poll-interval:500ms}")
+    private Duration pollInterval;
+
+    @Value("${langsmith.shipper.max-backoff:30s}")
+    private Duration maxBackoff;
+
+    private long backoffMillis;
+
+    @Autowired
+    public TraceShipper(@Qualifier("langSmithHttpClient") OkHttpClient langSmithHttpClient,
+                        LangSmithConfig config,
+                        TraceSpool spool,
+                        TraceEncoder traceEncoder,
+                        AIMetrics aiMetrics) {
+        this.httpClient = langSmithHttpClient;
+        this.config = config;
+        this.spool = spool;
+        this.traceEncoder = traceEncoder;
+        this.aiMetrics = aiMetrics;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "langsmith-shipper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.rejectedTraces = Counter.builder("langsmith.spool.rejected")
+                .description("Traces dropped because LangSmith rejected the batch")
+                .register(aiMetrics.getRegistry());
+        Gauge.builder("langsmith.spool.backlog", spool, TraceSpool::backlogBytes)
+                .description("Spooled trace bytes not yet accepted by LangSmith")
+                .baseUnit("bytes")
+                .register(aiMetrics.getRegistry());
+        FunctionCounter.builder("langsmith.spool.dropped", spool, TraceSpool::getDroppedBytes)
+                .description("Spooled trace bytes discarded by retention or corruption")
+                .baseUnit("bytes")
+                .register(aiMetrics.getRegistry());
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.execute(this::drain);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void drain() {
+        long delayMillis = pollInterval.toMillis();
+        try {
+            TraceSpool.Batch batch = spool.read(batchSize, batchBytes.toBytes());
+            if (!batch.isEmpty()) {
+                delayMillis = ship(batch);
+            }
+        } catch (Exception e) {
+            logger.error("Error draining trace spool", e);
+            delayMillis = nextBackoff();
+        } finally {
+            if (!executor.isShutdown()) {
+                executor.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private long ship(TraceSpool.Batch batch) throws IOException {
+        TraceEncoder.EncodedPayload payload = traceEncoder.encodeBody(toBatchJson(batch.getPayloads()));
+        RequestBody body = RequestBody.create(payload.getBody(), JSON);
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(config.getEndpoint() + "/runs/batch")
+                .post(body);
+        if (payload.getContentEncoding() != null) {
+            requestBuilder.header("Content-Encoding", payload.getContentEncoding());
+        }
+
+        int code;
+        try (Response response = httpClient.newCall(requestBuilder.build()).execute()) {
+            code = response.code();
+        } catch (IOException e) {
+            logger.warn("LangSmith unreachable, keeping {} spooled traces: {}", batch.getPayloads().size(), e.getMessage());
+            recordExport(batch, AIMetrics.OUTCOME_ERROR);
+            return nextBackoff();
+        }
+
+        if (code == 429 || code >= 500) {
+            logger.warn("LangSmith returned {}, retrying {} spooled traces", code, batch.getPayloads().size());
+            recordExport(batch, AIMetrics.OUTCOME_ERROR);
+            return nextBackoff();
+        }
+
+        if (code >= 400) {
+            logger.warn("LangSmith rejected batch of {} traces with {}, dropping it", batch.getPayloads().size(), code);
+            rejectedTraces.increment(batch.getPayloads().size());
+            recordExport(batch, AIMetrics.OUTCOME_ERROR);
+        } else {
+            logger.debug("Shipped {} traces to LangSmith", batch.getPayloads().size());
+            recordExport(batch, AIMetrics.OUTCOME_SUCCESS);
+        }
+        spool.commit(batch.getNext());
+        backoffMillis = 0L;
+        return 0L;
+    }
+
+    private byte[] toBatchJson(List<byte[]> traces) throws IOException {
+        int size = BATCH_PREFIX.length + BATCH_SUFFIX.length + traces.size();
+        for (byte[] trace : traces) {
+            size += trace.length;
+        }
+        ByteArrayOutputStream json = new ByteArrayOutputStream(size);
+        json.write(BATCH_PREFIX);
+        for (int i = 0; i < traces.size(); i++) {
+            if (i > 0) {
+                json.write(',');
+            }
+            json.write(traces.get(i));
+        }
+        json.write(BATCH_SUFFIX);
+        return json.toByteArray();
+    }
+
+    private void recordExport(TraceSpool.Batch batch, String outcome) {
+        long now = System.currentTimeMillis();
+        for (Long appendedAt : batch.getAppendedAt()) {
+            aiMetrics.recordTraceExport(Duration.ofMillis(Math.max(0L, now - appendedAt)), outcome);
+        }
+    }
+
+    private long nextBackoff() {
+        backoffMillis = backoffMillis == 0L
+                ? pollInterval.toMillis()
+                : Math.min(maxBackoff.toMillis(), backoffMillis * 2);
+        return backoffMillis;
+    }
+}
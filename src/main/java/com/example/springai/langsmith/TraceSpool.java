@@ -0,0 +1,373 @@
+package com.example.springai.langsmith;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segmented write-ahead log for finished traces.
+ *
+ * <p>Each record is {@code [length:int][crc32:int][appendedAtMillis:long][payload]}. Writers
+ * append to the active segment, which is rolled once it reaches the segment size. A single
+ * reader consumes records from the persisted checkpoint and commits its new position once a
+ * batch has been shipped; fully consumed segments are deleted. When the spool exceeds its
+ * size budget the oldest segments are dropped, shipped or not.
+ */
+public class TraceSpool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceSpool.class);
+
+    static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maxTotalBytes;
+
+    // Segment sequence -> bytes written. The active segment's entry is updated on every append.
+    private final ConcurrentNavigableMap<Long, Long> segments = new ConcurrentSkipListMap<>();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    private final AtomicLong droppedBytes = new AtomicLong();
+
+    private FileChannel activeChannel;
+    private volatile long activeSegment;
+    private volatile long activePosition;
+    private volatile Position checkpoint;
+
+    public TraceSpool(Path directory, long segmentBytes, long maxTotalBytes) throws IOException {
+        if (segmentBytes <= HEADER_BYTES || maxTotalBytes < segmentBytes) {
+            throw new IllegalArgumentException("Invalid spool sizes: segment=" + segmentBytes + ", max=" + maxTotalBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> {
+                        long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                                name.length() - SEGMENT_SUFFIX.length()));
+                        segments.put(sequence, segmentPath(sequence).toFile().length());
+                    });
+        }
+
+        Position stored = readCheckpoint();
+        if (segments.isEmpty()) {
+            segments.put(stored != null ? stored.segment() : 0L, 0L);
+            stored = null;
+        }
+        if (stored == null || stored.segment() < segments.firstKey() || stored.segment() > segments.lastKey()) {
+            stored = new Position(segments.firstKey(), 0L);
+        }
+
+        activeSegment = segments.lastKey();
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // A crash can leave a partially written record at the tail; cut it off before appending.
+        long validEnd = scanValidEnd(activeChannel);
+        if (validEnd < activeChannel.size()) {
+            logger.warn("Truncating {} bytes of incomplete trace data in segment {}",
+                    activeChannel.size() - validEnd, activeSegment);
+            activeChannel.truncate(validEnd);
+        }
+        activeChannel.position(validEnd);
+        activePosition = validEnd;
+        segments.put(activeSegment, validEnd);
+
+        long checkpointSegmentSize = segments.getOrDefault(stored.segment(), 0L);
+        checkpoint = stored.offset() > checkpointSegmentSize
+                ? new Position(stored.segment(), checkpointSegmentSize)
+                : stored;
+        deleteSegmentsBefore(checkpoint.segment());
+        logger.info("Trace spool at {} recovered with {} bytes of backlog", directory, backlogBytes());
+    }
+
+    private long scanValidEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = 0L;
+        ByteBuffer recordHeader = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            recordHeader.clear();
+            readFully(channel, recordHeader, position);
+            recordHeader.flip();
+            int length = recordHeader.getInt();
+            int expectedCrc = recordHeader.getInt();
+            if (length < 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            if (checksum(payload.array()) != expectedCrc) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    public synchronized void append(byte[] payload) throws IOException {
+        long recordBytes = HEADER_BYTES + (long) payload.length;
+        if (activePosition > 0 && activePosition + recordBytes > segmentBytes) {
+            roll();
+        }
+
+        header.clear();
+        header.putInt(payload.length)
+                .putInt(checksum(payload))
+                .putLong(System.currentTimeMillis())
+                .flip();
+        ByteBuffer[] record = {header, ByteBuffer.wrap(payload)};
+        while (record[1].hasRemaining()) {
+            activeChannel.write(record);
+        }
+
+        activePosition += recordBytes;
+        segments.put(activeSegment, activePosition);
+    }
+
+    private void roll() throws IOException {
+        activeChannel.close();
+        activeSegment++;
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activePosition = 0L;
+        segments.put(activeSegment, 0L);
+        enforceRetention();
+    }
+
+    private void enforceRetention() throws IOException {
+        long total = totalBytes();
+        while (total > maxTotalBytes && segments.firstKey() < activeSegment) {
+            Map.Entry<Long, Long> oldest = segments.pollFirstEntry();
+            Files.deleteIfExists(segmentPath(oldest.getKey()));
+            total -= oldest.getValue();
+
+            Position current = checkpoint;
+            if (current.segment() <= oldest.getKey()) {
+                droppedBytes.addAndGet(oldest.getValue()
+                        - (current.segment() == oldest.getKey() ? current.offset() : 0L));
+                checkpoint = new Position(segments.firstKey(), 0L);
+                writeCheckpoint(checkpoint);
+            }
+            logger.warn("Trace spool over {} bytes, dropped segment {}", maxTotalBytes, oldest.getKey());
+        }
+    }
+
+    /**
+     * Reads up to {@code maxRecords} records (or roughly {@code maxBytes}) starting at the
+     * checkpoint. Does not advance the checkpoint; call {@link #commit(Position)} after the
+     * batch has been delivered. Must only be called from a single reader thread.
+     */
+    public Batch read(int maxRecords, long maxBytes) throws IOException {
+        Position position = checkpoint;
+        List<byte[]> payloads = new ArrayList<>();
+        List<Long> appendedAt = new ArrayList<>();
+        long bytes = 0L;
+        ByteBuffer recordHeader = ByteBuffer.allocate(HEADER_BYTES);
+
+        while (payloads.size() < maxRecords && bytes < maxBytes) {
+            long segment = position.segment();
+            Long written = segments.get(segment);
+            if (written == null) {
+                // Dropped by retention while we were reading; continue with the next segment.
+                Long next = segments.higherKey(segment);
+                if (next == null) {
+                    break;
+                }
+                position = new Position(next, 0L);
+                continue;
+            }
+            if (position.offset() >= written) {
+                if (segment >= activeSegment) {
+                    break;
+                }
+                position = new Position(segments.higherKey(segment), 0L);
+                continue;
+            }
+
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                long offset = position.offset();
+                while (offset + HEADER_BYTES <= written && payloads.size() < maxRecords && bytes < maxBytes) {
+                    recordHeader.clear();
+                    readFully(channel, recordHeader, offset);
+                    recordHeader.flip();
+                    int length = recordHeader.getInt();
+                    int expectedCrc = recordHeader.getInt();
+                    long timestamp = recordHeader.getLong();
+                    ByteBuffer payload = null;
+                    if (length >= 0 && offset + HEADER_BYTES + length <= written) {
+                        payload = ByteBuffer.allocate(length);
+                        readFully(channel, payload, offset + HEADER_BYTES);
+                    }
+                    if (payload == null || checksum(payload.array()) != expectedCrc) {
+                        logger.warn("Corrupt trace record in segment {} at offset {}, skipping rest of segment",
+                                segment, offset);
+                        droppedBytes.addAndGet(written - offset);
+                        offset = written;
+                        break;
+                    }
+                    payloads.add(payload.array());
+                    appendedAt.add(timestamp);
+                    bytes += length;
+                    offset += HEADER_BYTES + length;
+                }
+                if (offset + HEADER_BYTES > written && offset < written) {
+                    // Trailing garbage in a sealed segment.
+                    offset = written;
+                }
+                position = new Position(segment, offset);
+            } catch (NoSuchFileException e) {
+                segments.remove(segment);
+            }
+        }
+        return new Batch(payloads, appendedAt, position);
+    }
+
+    public synchronized void commit(Position next) throws IOException {
+        if (next.compareTo(checkpoint) <= 0) {
+            return;
+        }
+        checkpoint = next;
+        writeCheckpoint(next);
+        deleteSegmentsBefore(next.segment());
+    }
+
+    private void deleteSegmentsBefore(long segment) throws IOException {
+        for (Long sequence : new ArrayList<>(segments.headMap(segment).keySet())) {
+            if (sequence < activeSegment) {
+                segments.remove(sequence);
+                Files.deleteIfExists(segmentPath(sequence));
+            }
+        }
+    }
+
+    public long backlogBytes() {
+        Position current = checkpoint;
+        long total = 0L;
+        for (Map.Entry<Long, Long> entry : segments.tailMap(current.segment()).entrySet()) {
+            total += entry.getValue();
+        }
+        return Math.max(0L, total - current.offset());
+    }
+
+    public long totalBytes() {
+        long total = 0L;
+        for (Long size : segments.values()) {
+            total += size;
+        }
+        return total;
+    }
+
+    public long getDroppedBytes() {
+        return droppedBytes.get();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (activeChannel.isOpen()) {
+            activeChannel.force(false);
+            activeChannel.close();
+        }
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String[] parts = Files.readString(file, StandardCharsets.US_ASCII).trim().split(" ");
+        try {
+            return new Position(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring unreadable trace spool checkpoint {}", file);
+            return null;
+        }
+    }
+
+    private void writeCheckpoint(Position position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, position.segment() + " " + position.offset(), StandardCharsets.US_ASCII);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of trace spool segment");
+            }
+        }
+    }
+
+    public record Position(long segment, long offset) implements Comparable<Position> {
+        @Override
+        public int compareTo(Position other) {
+            int bySegment = Long.compare(segment, other.segment);
+            return bySegment != 0 ? bySegment : Long.compare(offset, other.offset);
+        }
+    }
+
+    public static class Batch {
+        private final List<byte[]> payloads;
+        private final List<Long> appendedAt;
+        private final Position next;
+
+        Batch(List<byte[]> payloads, List<Long> appendedAt, Position next) {
+            this.payloads = payloads;
+            this.appendedAt = appendedAt;
+            this.next = next;
+        }
+
+        public List<byte[]> getPayloads() {
+            return payloads;
+        }
+
+        public List<Long> getAppendedAt() {
+            return appendedAt;
+        }
+
+        public Position getNext() {
+            return next;
+        }
+
+        public boolean isEmpty() {
+            return payloads.isEmpty();
+        }
+    }
+}
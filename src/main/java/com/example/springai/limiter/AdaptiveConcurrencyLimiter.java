@@ -0,0 +1,181 @@
+package com.example.springai.limiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of concurrent upstream calls with an AIMD limit: every successful
+ * call under the latency threshold grows the limit by 1/limit, every failure or slow
+ * call shrinks it multiplicatively. In-flight count, queue depth, queue wait and the
+ * current limit are published so the HPA can scale on saturation instead of CPU.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final Duration maxQueueWait;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Timer queueWait;
+
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int queued;
+    private volatile IntSupplier externalQueued = () -> 0;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, Duration latencyThreshold,
+                                      Duration maxQueueWait, MeterRegistry registry) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.maxQueueWait = maxQueueWait;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        this.queueWait = Timer.builder("ai.upstream.queue.wait")
+                .description("Time spent waiting for an upstream concurrency permit")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("ai.upstream.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Upstream LLM and embedding calls currently in flight")
+                .register(registry);
+        Gauge.builder("ai.upstream.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .description("Requests waiting for an upstream concurrency permit")
+                .register(registry);
+        Gauge.builder("ai.upstream.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive upstream concurrency limit")
+                .register(registry);
+        Gauge.builder("ai.upstream.saturation", this, AdaptiveConcurrencyLimiter::getSaturation)
+                .description("(in-flight + queued) / limit")
+                .register(registry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        Permit permit = acquire(maxQueueWait);
+        boolean success = false;
+        try {
+            T result = call.get();
+            success = true;
+            return result;
+        } finally {
+            permit.release(success);
+        }
+    }
+
+    public Permit acquire(Duration maxWait) {
+        long start = System.nanoTime();
+        long remaining = maxWait.toNanos();
+        lock.lock();
+        try {
+            queued++;
+            try {
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0L) {
+                        throw new UpstreamSaturatedException(
+                                "Upstream concurrency limit of " + currentLimit() + " reached");
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UpstreamSaturatedException("Interrupted while waiting for upstream capacity");
+            } finally {
+                queued--;
+                queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= currentLimit()) {
+                return null;
+            }
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onRelease(long latencyNanos, boolean success) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (!success || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlight + 1 >= limit / 2) {
+                // Only grow while the limit is actually being exercised.
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Lets a scheduler that queues callers before {@link #tryAcquire()} report its queue depth,
+     * so that queue and saturation metrics still cover every waiting request.
+     */
+    public void setExternalQueue(IntSupplier externalQueued) {
+        this.externalQueued = externalQueued;
+    }
+
+    public int availablePermits() {
+        return Math.max(0, currentLimit() - inFlight);
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued + externalQueued.getAsInt();
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public double getSaturation() {
+        return (inFlight + getQueued()) / limit;
+    }
+
+    public class Permit {
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        public void release(boolean success) {
+            if (released) {
+                return;
+            }
+            released = true;
+            onRelease(System.nanoTime() - startNanos, success);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.springai.limiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class UpstreamLimiterConfig {
+
+    @Value("${ai.upstream.limit.initial:16}")
+    private int initialLimit;
+
+    @Value("${ai.upstream.limit.min:2}")
+    private int minLimit;
+
+    @Value("${ai.upstream.limit.max:64}")
+    private int maxLimit;
+
+    @Value("${ai.upstream.limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${ai.upstream.limit.latency-threshold:20s}")
+    private Duration latencyThreshold;
+
+    @Value("${ai.upstream.limit.max-queue-wait:5s}")
+    private Duration maxQueueWait;
+
+    @Bean
+    public AdaptiveConcurrencyLimiter upstreamLimiter(MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                backoffRatio, latencyThreshold, maxQueueWait, meterRegistry);
+    }
+}
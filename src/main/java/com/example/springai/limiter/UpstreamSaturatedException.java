@@ -0,0 +1,14 @@
+package com.example.springai.limiter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class UpstreamSaturatedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamSaturatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.springai.local;
+
+import com.example.springai.metrics.AIMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class LocalModelConfig {
+
+    @Value("${local-model.enabled:false}")
+    private boolean enabled;
+
+    @Value("${spring.ai.ollama.base-url:http://localhost:11434}")
+    private String baseUrl;
+
+    @Value("${spring.ai.ollama.chat.options.model:llama2}")
+    private String defaultModel;
+
+    @Value("${local-model.preload:${spring.ai.ollama.chat.options.model:llama2}}")
+    private String[] preloadModels;
+
+    @Value("${local-model.keep-alive:30m}")
+    private Duration keepAlive;
+
+    // Must be shorter than keep-alive, otherwise Ollama unloads idle models between refreshes.
+    @Value("${local-model.refresh-interval:5m}")
+    private Duration refreshInterval;
+
+    @Value("${local-model.retry-interval:15s}")
+    private Duration retryInterval;
+
+    // Match OLLAMA_NUM_PARALLEL; requests beyond it would only queue inside Ollama.
+    @Value("${local-model.max-concurrency:2}")
+    private int maxConcurrency;
+
+    @Value("${local-model.max-queue:16}")
+    private int maxQueue;
+
+    @Value("${local-model.max-queue-wait:2s}")
+    private Duration maxQueueWait;
+
+    @Value("${local-model.read-timeout:30s}")
+    private Duration readTimeout;
+
+    // Loading a model from disk takes far longer than generating a short completion.
+    @Value("${local-model.load-timeout:5m}")
+    private Duration loadTimeout;
+
+    @Bean(destroyMethod = "close")
+    public LocalModelService localModelService(@Qualifier("sharedHttpClient") OkHttpClient sharedHttpClient,
+                                               ObjectMapper objectMapper, AIMetrics aiMetrics) {
+        if (!enabled) {
+            return LocalModelService.disabled();
+        }
+        OkHttpClient httpClient = sharedHttpClient.newBuilder()
+                .readTimeout(readTimeout)
+                .build();
+        List<String> preload = Arrays.stream(preloadModels).filter(StringUtils::hasText).map(String::trim).toList();
+        LocalModelService service = new LocalModelService(new OllamaClient(httpClient, baseUrl, objectMapper, keepAlive, loadTimeout),
+                defaultModel, preload, maxConcurrency, maxQueue, maxQueueWait, aiMetrics);
+        service.start(refreshInterval, retryInterval);
+        return service;
+    }
+}
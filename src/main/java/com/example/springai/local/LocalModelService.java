@@ -0,0 +1,212 @@
+package com.example.springai.local;
+
+import com.example.springai.deadline.Deadline;
+import com.example.springai.deadline.DeadlineContext;
+import com.example.springai.metrics.AIMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution path for workflow steps that are cheap enough for a local Ollama model.
+ * Models are loaded when the application is ready and their keep-alive is refreshed
+ * periodically, so requests do not pay for a cold load. Concurrent requests share a bounded
+ * number of slots with a bounded wait queue. Whenever the local path cannot serve a request
+ * promptly the result is empty and the caller falls back to its remote or rule-based path.
+ */
+public class LocalModelService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalModelService.class);
+    private static final String PROVIDER = "ollama";
+    private static final String CLIENT = "okhttp";
+
+    private final boolean enabled;
+    private final OllamaClient client;
+    private final String defaultModel;
+    private final Semaphore slots;
+    private final int maxQueue;
+    private final Duration maxQueueWait;
+    private final AIMetrics aiMetrics;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentMap<String, Boolean> models = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> fallbacks = new ConcurrentHashMap<>();
+    private ScheduledExecutorService refresher;
+
+    public LocalModelService(OllamaClient client, String defaultModel, List<String> preloadModels,
+                             int maxConcurrency, int maxQueue, Duration maxQueueWait, AIMetrics aiMetrics) {
+        this(true, client, defaultModel, preloadModels, maxConcurrency, maxQueue, maxQueueWait, aiMetrics);
+    }
+
+    private LocalModelService(boolean enabled, OllamaClient client, String defaultModel, List<String> preloadModels,
+                              int maxConcurrency, int maxQueue, Duration maxQueueWait, AIMetrics aiMetrics) {
+        this.enabled = enabled;
+        this.client = client;
+        this.defaultModel = defaultModel;
+        this.slots = new Semaphore(maxConcurrency, true);
+        this.maxQueue = maxQueue;
+        this.maxQueueWait = maxQueueWait;
+        this.aiMetrics = aiMetrics;
+        for (String model : preloadModels) {
+            models.put(model, false);
+        }
+
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("local.model.queued", waiting, AtomicInteger::get)
+                .description("Requests waiting for a local model slot")
+                .register(aiMetrics.getRegistry());
+        Gauge.builder("local.model.inflight", inFlight, AtomicInteger::get)
+                .description("Requests currently executing on the local model")
+                .register(aiMetrics.getRegistry());
+        Gauge.builder("local.model.warm", models, m -> m.values().stream().filter(Boolean::booleanValue).count())
+                .description("Local models loaded and kept warm")
+                .register(aiMetrics.getRegistry());
+    }
+
+    public static LocalModelService disabled() {
+        return new LocalModelService(false, null, null, List.of(), 1, 0, Duration.ZERO, null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the configured models now and refreshes their keep-alive every {@code interval}.
+     * A model that is not loaded is retried every {@code retryInterval}, so a failed load or a
+     * restarted Ollama server only sends requests to the fallback path briefly.
+     */
+    public void start(Duration interval, Duration retryInterval) {
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "local-model-keepalive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.execute(this::refresh);
+        refresher.scheduleWithFixedDelay(this::refresh, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        refresher.scheduleWithFixedDelay(this::retryCold, retryInterval.toMillis(), retryInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Generates a completion with {@code model}, or the default model when it is {@code null}
+     * or empty. Returns empty when the local path is disabled, the model is not loaded, the queue is full, no slot freed up
+     * in time or the call failed; {@code node} tags the fallback metric.
+     */
+    public Optional<String> generate(String node, String model, String prompt) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        // A known model that is not loaded is reported as cold rather than loaded on the request
+        // path. A model first seen here gets one attempt, which also registers it for refresh.
+        String resolved = model == null || model.isEmpty() ? defaultModel : model;
+        if (Boolean.FALSE.equals(models.putIfAbsent(resolved, false))) {
+            return fallback(node, "cold");
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            return fallback(node, "queue_full");
+        }
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(queueWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            return fallback(node, "queue_timeout");
+        }
+
+        inFlight.incrementAndGet();
+        Timer.Sample sample = aiMetrics.startTimer();
+        try {
+            OllamaClient.Generation generation = client.generate(resolved, prompt);
+            aiMetrics.recordLlmCall(PROVIDER, CLIENT, node, sample, AIMetrics.OUTCOME_SUCCESS);
+            aiMetrics.recordTokens(PROVIDER, CLIENT, node, generation.inputTokens(), generation.outputTokens());
+            models.put(resolved, true);
+            return Optional.of(generation.text());
+        } catch (IOException e) {
+            aiMetrics.recordLlmCall(PROVIDER, CLIENT, node, sample, AIMetrics.OUTCOME_ERROR);
+            logger.warn("Local model {} failed for {}: {}", resolved, node, e.getMessage());
+            return fallback(node, "error");
+        } finally {
+            inFlight.decrementAndGet();
+            slots.release();
+        }
+    }
+
+    private void refresh() {
+        for (Map.Entry<String, Boolean> entry : models.entrySet()) {
+            load(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void retryCold() {
+        for (Map.Entry<String, Boolean> entry : models.entrySet()) {
+            if (!entry.getValue()) {
+                load(entry.getKey(), false);
+            }
+        }
+    }
+
+    private void load(String model, boolean warm) {
+        try {
+            client.load(model);
+            if (!warm) {
+                logger.info("Local model {} loaded", model);
+            }
+            models.put(model, true);
+        } catch (IOException e) {
+            if (warm) {
+                logger.warn("Local model {} unavailable: {}", model, e.getMessage());
+            }
+            models.put(model, false);
+        }
+    }
+
+    private Duration queueWait() {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return maxQueueWait;
+        }
+        Duration remaining = deadline.remaining();
+        return remaining.compareTo(maxQueueWait) < 0 ? remaining : maxQueueWait;
+    }
+
+    private Optional<String> fallback(String node, String reason) {
+        fallbacks.computeIfAbsent(node + '|' + reason, k -> Counter.builder("local.model.fallback")
+                .description("Local model requests served by the fallback path instead")
+                .tag("node", node)
+                .tag("reason", reason)
+                .register(aiMetrics.getRegistry()))
+                .increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+}
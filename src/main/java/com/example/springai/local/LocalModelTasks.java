@@ -0,0 +1,54 @@
+package com.example.springai.local;
+
+import com.example.springai.analysis.TextFeatures;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Workflow steps that run on the local model: the prompt for each and how its answer is read.
+ * An answer that is missing or cannot be read leaves the caller's own result in place.
+ */
+public class LocalModelTasks {
+
+    private final LocalModelService localModelService;
+
+    public LocalModelTasks(LocalModelService localModelService) {
+        this.localModelService = localModelService;
+    }
+
+    /**
+     * Classifies {@code input}, keeping the word count of {@code lexiconFeatures}. When the
+     * answer is missing or unclear, {@code lexiconFeatures} itself is returned.
+     */
+    public TextFeatures classify(String model, String input, TextFeatures lexiconFeatures) {
+        String prompt = "Classify the text below. Reply with exactly three comma-separated words: "
+                + "question or statement, request or none, positive, negative or neutral.\n\nText: " + input;
+        String answer = localModelService.generate("analyze", model, prompt).orElse("");
+        List<String> labels = Arrays.asList(answer.toLowerCase(Locale.ROOT).split("[^a-z]+"));
+        boolean question = labels.contains("question");
+        boolean sentiment = labels.contains("positive") || labels.contains("negative") || labels.contains("neutral");
+        if (!(question || labels.contains("statement")) || !sentiment) {
+            return lexiconFeatures;
+        }
+        return new TextFeatures(lexiconFeatures.getWordCount(), question, labels.contains("request"),
+                labels.contains("positive"), labels.contains("negative"));
+    }
+
+    /**
+     * Returns feedback when the local model fails {@code response}, or {@code null} when it
+     * passes it or gives no clear verdict.
+     */
+    public String review(String model, String input, String response) {
+        String prompt = "Review the assistant response to the user input below. Reply PASS if it is relevant, "
+                + "correct and complete. Otherwise reply FAIL followed by one sentence saying what to improve.\n\n"
+                + "User input: " + input + "\n\nResponse: " + response;
+        String verdict = localModelService.generate("review", model, prompt).orElse("").strip();
+        if (!verdict.toUpperCase(Locale.ROOT).startsWith("FAIL")) {
+            return null;
+        }
+        String feedback = verdict.substring(4).replaceFirst("^[\\s:.,-]+", "");
+        return feedback.isEmpty() ? "Response needs improvement" : feedback;
+    }
+}
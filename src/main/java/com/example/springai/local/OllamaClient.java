@@ -0,0 +1,80 @@
+package com.example.springai.local;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Minimal client for Ollama's {@code /api/generate} endpoint. Every request carries a
+ * {@code keep_alive}, so a model stays loaded for that long after its last use.
+ */
+public class OllamaClient {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final OkHttpClient httpClient;
+    private final OkHttpClient loadHttpClient;
+    private final String generateUrl;
+    private final ObjectMapper objectMapper;
+    private final String keepAlive;
+
+    public OllamaClient(OkHttpClient httpClient, String baseUrl, ObjectMapper objectMapper,
+                        Duration keepAlive, Duration loadTimeout) {
+        this.httpClient = httpClient;
+        this.loadHttpClient = httpClient.newBuilder().readTimeout(loadTimeout).build();
+        this.generateUrl = baseUrl.replaceAll("/+$", "") + "/api/generate";
+        this.objectMapper = objectMapper;
+        this.keepAlive = keepAlive.toSeconds() + "s";
+    }
+
+    public Generation generate(String model, String prompt) throws IOException {
+        ObjectNode request = request(model);
+        request.put("prompt", prompt);
+        JsonNode response = post(httpClient, request);
+        return new Generation(response.path("response").asText(""),
+                response.path("prompt_eval_count").asInt(0),
+                response.path("eval_count").asInt(0));
+    }
+
+    /**
+     * Loads the model into memory, or extends its keep-alive if it is already loaded.
+     * Ollama treats a generate request without a prompt as a load request.
+     */
+    public void load(String model) throws IOException {
+        post(loadHttpClient, request(model));
+    }
+
+    private ObjectNode request(String model) {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("model", model);
+        request.put("stream", false);
+        request.put("keep_alive", keepAlive);
+        return request;
+    }
+
+    private JsonNode post(OkHttpClient client, ObjectNode body) throws IOException {
+        Request request = new Request.Builder()
+                .url(generateUrl)
+                .post(RequestBody.create(objectMapper.writeValueAsBytes(body), JSON))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            ResponseBody responseBody = response.body();
+            if (!response.isSuccessful() || responseBody == null) {
+                throw new IOException("Ollama returned " + response.code() + " for model " + body.path("model").asText());
+            }
+            return objectMapper.readTree(responseBody.byteStream());
+        }
+    }
+
+    public record Generation(String text, int inputTokens, int outputTokens) {
+    }
+}
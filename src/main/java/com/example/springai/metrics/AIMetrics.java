@@ -0,0 +1,128 @@
+package com.example.springai.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Central registry of the application's own meters. Meters are resolved once per tag
+ * combination and cached, so recording on the hot path is a map lookup plus the update.
+ * All tag values come from small fixed sets (provider, client, operation, node name, outcome).
+ */
+@Component
+public class AIMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final DistributionSummary workflowGenerations;
+
+    @Autowired
+    public AIMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.workflowGenerations = DistributionSummary.builder("workflow.generations")
+                .description("LLM generations per workflow execution, including review-loop retries")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10.0)
+                .register(registry);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void recordLlmCall(String provider, String client, String operation,
+                              Timer.Sample sample, String outcome) {
+        String key = "llm|" + provider + '|' + client + '|' + operation + '|' + outcome;
+        sample.stop(timers.computeIfAbsent(key, k -> Timer.builder("ai.llm.requests")
+                .description("Latency of upstream LLM and embedding calls")
+                .tag("provider", provider)
+                .tag("client", client)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)));
+    }
+
+    public void recordTokens(String provider, String client, String operation,
+                             Number inputTokens, Number outputTokens) {
+        incrementTokens(provider, client, operation, "input", inputTokens);
+        incrementTokens(provider, client, operation, "output", outputTokens);
+    }
+
+    private void incrementTokens(String provider, String client, String operation,
+                                 String type, Number amount) {
+        if (amount == null || amount.longValue() <= 0) {
+            return;
+        }
+        String key = "tokens|" + provider + '|' + client + '|' + operation + '|' + type;
+        counters.computeIfAbsent(key, k -> Counter.builder("ai.llm.tokens")
+                .description("Tokens consumed by upstream LLM and embedding calls")
+                .tag("provider", provider)
+                .tag("client", client)
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(registry))
+                .increment(amount.doubleValue());
+    }
+
+    public void recordNode(String node, long durationNanos, boolean success) {
+        String outcome = success ? OUTCOME_SUCCESS : OUTCOME_ERROR;
+        String key = "node|" + node + '|' + outcome;
+        timers.computeIfAbsent(key, k -> Timer.builder("workflow.node.duration")
+                .description("Execution time of individual workflow nodes")
+                .tag("node", node)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGenerations(int generationCount) {
+        workflowGenerations.record(generationCount);
+    }
+
+    public void recordTraceExport(Duration lag, String outcome) {
+        String key = "trace|" + outcome;
+        timers.computeIfAbsent(key, k -> Timer.builder("langsmith.trace.export.lag")
+                .description("Time from spooling a trace until LangSmith accepted or rejected it")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(lag);
+    }
+
+    public void recordDeadlineExceeded(String stage) {
+        String key = "deadline|" + stage;
+        counters.computeIfAbsent(key, k -> Counter.builder("ai.deadline.exceeded")
+                .description("Requests abandoned because their deadline expired")
+                .tag("stage", stage)
+                .register(registry))
+                .increment();
+    }
+
+    public void recordStreamedReview(String result) {
+        String key = "review|" + result;
+        counters.computeIfAbsent(key, k -> Counter.builder("workflow.review.streamed")
+                .description("Responses reviewed while streaming, by review result")
+                .tag("result", result)
+                .register(registry))
+                .increment();
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.springai.review;
+
+import com.example.springai.analysis.KeywordAutomaton;
+
+import java.util.Collection;
+
+/**
+ * Fails a response as soon as it contains one of the forbidden terms. Terms are matched
+ * case-insensitively, including terms split across token boundaries.
+ */
+public class ForbiddenTermsRule implements ReviewRule {
+
+    private static final String FEEDBACK = "Response contains content that is not allowed";
+
+    private final KeywordAutomaton automaton;
+
+    public ForbiddenTermsRule(Collection<String> terms) {
+        this.automaton = KeywordAutomaton.builder().addAll(terms, 0).build();
+    }
+
+    @Override
+    public Check start() {
+        KeywordAutomaton.Matcher matcher = automaton.matcher();
+        return token -> matcher.feed(token) != 0 ? FEEDBACK : null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.springai.review;
+
+/**
+ * Fails a finished response that is shorter than the configured number of characters.
+ */
+public class MinLengthRule implements ReviewRule {
+
+    private static final String FEEDBACK = "Response is too short";
+
+    private final int minLength;
+
+    public MinLengthRule(int minLength) {
+        this.minLength = minLength;
+    }
+
+    @Override
+    public Check start() {
+        return new Check() {
+            @Override
+            public String onToken(String token) {
+                return null;
+            }
+
+            @Override
+            public String onComplete(String response) {
+                return response.length() < minLength ? FEEDBACK : null;
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.springai.review;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the configured review rules to a response, either incrementally while it streams
+ * through a {@link Session} or to a complete response at once.
+ */
+public class ResponseReviewer {
+
+    private final List<ReviewRule> rules;
+
+    public ResponseReviewer(List<ReviewRule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    public Session start() {
+        List<ReviewRule.Check> checks = new ArrayList<>(rules.size());
+        for (ReviewRule rule : rules) {
+            checks.add(rule.start());
+        }
+        return new Session(checks);
+    }
+
+    /**
+     * Returns the feedback of the first rule the response breaks, or {@code null} if it passes.
+     */
+    public String review(String response) {
+        Session session = start();
+        session.accept(response);
+        session.complete(response);
+        return session.getFeedback();
+    }
+
+    /**
+     * Review state of one response. Tokens are fed from the streaming callback thread and the
+     * result is read after the stream has completed, so no further synchronization is needed.
+     */
+    public static final class Session {
+
+        private final List<ReviewRule.Check> checks;
+        private String feedback;
+        private boolean aborted;
+
+        private Session(List<ReviewRule.Check> checks) {
+            this.checks = checks;
+        }
+
+        /**
+         * Feeds the next token and returns {@code false} once the response has failed review
+         * and the rest of the stream is no longer needed.
+         */
+        public boolean accept(String token) {
+            if (feedback != null) {
+                return false;
+            }
+            for (ReviewRule.Check check : checks) {
+                String result = check.onToken(token);
+                if (result != null) {
+                    feedback = result;
+                    aborted = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Applies the end-of-response checks and returns whether the response passed.
+         */
+        public boolean complete(String response) {
+            if (feedback != null) {
+                return false;
+            }
+            for (ReviewRule.Check check : checks) {
+                String result = check.onComplete(response);
+                if (result != null) {
+                    feedback = result;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean isPassed() {
+            return feedback == null;
+        }
+
+        public boolean isAborted() {
+            return aborted;
+        }
+
+        public String getFeedback() {
+            return feedback;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.springai.review;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class ReviewConfig {
+
+    @Value("${workflow.review.forbidden-terms:error}")
+    private String[] forbiddenTerms;
+
+    @Value("${workflow.review.min-length:11}")
+    private int minLength;
+
+    @Bean
+    public ResponseReviewer responseReviewer() {
+        List<ReviewRule> rules = new ArrayList<>();
+        List<String> terms = Arrays.stream(forbiddenTerms).filter(StringUtils::hasLength).toList();
+        if (!terms.isEmpty()) {
+            rules.add(new ForbiddenTermsRule(terms));
+        }
+        if (minLength > 0) {
+            rules.add(new MinLengthRule(minLength));
+        }
+        return new ResponseReviewer(rules);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.springai.review;
+
+/**
+ * A check applied to a generated response. Rules see the response token by token as it
+ * streams in, so a violation can be reported before the generation has finished.
+ */
+public interface ReviewRule {
+
+    Check start();
+
+    interface Check {
+
+        /**
+         * Returns feedback for the model if the response received so far already breaks the
+         * rule, or {@code null} to keep streaming.
+         */
+        String onToken(String token);
+
+        /**
+         * Returns feedback if the finished response breaks the rule, or {@code null}.
+         */
+        default String onComplete(String response) {
+            return null;
+        }
+    }
+}
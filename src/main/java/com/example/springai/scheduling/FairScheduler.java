@@ -0,0 +1,441 @@
+package com.example.springai.scheduling;
+
+import com.example.springai.deadline.Deadline;
+import com.example.springai.deadline.DeadlineContext;
+import com.example.springai.deadline.DeadlineExceededException;
+import com.example.springai.limiter.AdaptiveConcurrencyLimiter;
+import com.example.springai.limiter.UpstreamSaturatedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Decides which waiting request gets the next upstream permit. Interactive work is dispatched
+ * before batch work, and batch work may hold at most a share of the adaptive limit, so a batch
+ * flood cannot take the headroom interactive requests need. Within a class, tenants are served
+ * by deficit round robin weighted by their policy, with costs in estimated tokens. A tenant at
+ * its concurrency limit or out of token budget is skipped until it has capacity again.
+ * At most {@code maxTrackedTenants} tenants are tracked; requests from further tenants share a
+ * single overflow tenant until idle tenants are swept.
+ */
+public class FairScheduler implements Closeable {
+
+    static final String OVERFLOW_TENANT = "overflow";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Function<String, TenantPolicy> policies;
+    private final long quantum;
+    private final double batchMaxShare;
+    private final Duration maxQueueWait;
+    private final int maxTrackedTenants;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, TenantState> tenants = new HashMap<>();
+    private final Map<Priority, ArrayDeque<TenantState>> active = new EnumMap<>(Priority.class);
+    private final int[] inFlight = new int[Priority.values().length];
+    private final int[] queued = new int[Priority.values().length];
+    private final Map<Priority, Timer> queueWait = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> throttled = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> saturated = new EnumMap<>(Priority.class);
+    private final ScheduledExecutorService ticker;
+
+    public FairScheduler(AdaptiveConcurrencyLimiter limiter, Function<String, TenantPolicy> policies,
+                         long quantum, double batchMaxShare, Duration maxQueueWait, int maxTrackedTenants,
+                         MeterRegistry registry) {
+        // next() adds quantum x weight to each deficit per round, so zero would spin forever.
+        if (quantum < 1) {
+            throw new IllegalArgumentException("Scheduler quantum must be at least 1: " + quantum);
+        }
+        this.limiter = limiter;
+        this.policies = policies;
+        this.quantum = quantum;
+        this.batchMaxShare = batchMaxShare;
+        this.maxQueueWait = maxQueueWait;
+        this.maxTrackedTenants = maxTrackedTenants;
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            active.put(priority, new ArrayDeque<>());
+            queueWait.put(priority, Timer.builder("ai.scheduler.queue.wait")
+                    .description("Time requests waited for the scheduler to grant an upstream permit")
+                    .tag("priority", tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            throttled.put(priority, rejections(registry, tag, "throttled"));
+            saturated.put(priority, rejections(registry, tag, "saturated"));
+            Gauge.builder("ai.scheduler.queued", queued, q -> q[priority.ordinal()])
+                    .description("Requests waiting in the scheduler")
+                    .tag("priority", tag)
+                    .register(registry);
+            Gauge.builder("ai.scheduler.inflight", inFlight, f -> f[priority.ordinal()])
+                    .description("Upstream calls in flight granted by the scheduler")
+                    .tag("priority", tag)
+                    .register(registry);
+        }
+        Gauge.builder("ai.scheduler.tenants", tenants, Map::size)
+                .description("Tenants currently tracked by the scheduler")
+                .register(registry);
+        limiter.setExternalQueue(this::getQueued);
+
+        // Token budgets refill with time rather than on release, so re-run dispatch periodically.
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, 100, 100, TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter rejections(MeterRegistry registry, String priority, String reason) {
+        return Counter.builder("ai.scheduler.rejected")
+                .description("Requests that timed out waiting for the scheduler")
+                .tag("priority", priority)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    public <T> T execute(Tenant tenant, long estimatedTokens, Supplier<T> call, ToLongFunction<T> tokensUsed) {
+        Ticket ticket = enqueue(tenant, Math.max(1L, estimatedTokens));
+        AdaptiveConcurrencyLimiter.Permit permit = await(ticket);
+        boolean success = false;
+        long used = ticket.cost;
+        try {
+            T result = call.get();
+            success = true;
+            long reported = result != null ? tokensUsed.applyAsLong(result) : 0L;
+            if (reported > 0L) {
+                used = reported;
+            }
+            return result;
+        } finally {
+            permit.release(success);
+            complete(ticket, used);
+        }
+    }
+
+    private Ticket enqueue(Tenant tenant, long cost) {
+        lock.lock();
+        try {
+            TenantState state = tenants.get(tenant.id());
+            if (state == null) {
+                String id = tenants.size() < maxTrackedTenants ? tenant.id() : OVERFLOW_TENANT;
+                state = tenants.computeIfAbsent(id, key -> new TenantState(key, policies.apply(key)));
+            }
+            Ticket ticket = new Ticket(state, tenant.priority(), cost);
+            ArrayDeque<Ticket> queue = state.queue(ticket.priority);
+            if (queue.isEmpty()) {
+                active.get(ticket.priority).addLast(state);
+            }
+            queue.addLast(ticket);
+            queued[ticket.priority.ordinal()]++;
+            dispatch();
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits no longer than the request deadline, so a ticket whose caller has already given up
+    // leaves the queue instead of holding a worker until max-queue-wait.
+    private AdaptiveConcurrencyLimiter.Permit await(Ticket ticket) {
+        Deadline deadline = DeadlineContext.current();
+        long waitNanos = maxQueueWait.toNanos();
+        boolean deadlineBound = deadline != null && deadline.remaining().toNanos() < waitNanos;
+        if (deadlineBound) {
+            waitNanos = deadline.remaining().toNanos();
+        }
+        try {
+            return ticket.grant.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (!withdraw(ticket)) {
+                return ticket.grant.join();
+            }
+            if (deadlineBound) {
+                throw new DeadlineExceededException("Request deadline exceeded waiting for upstream capacity");
+            }
+            if (isThrottled(ticket.state)) {
+                throttled.get(ticket.priority).increment();
+                throw new TenantThrottledException("Tenant " + ticket.state.id + " exceeded its upstream budget");
+            }
+            saturated.get(ticket.priority).increment();
+            throw new UpstreamSaturatedException("No upstream capacity within " + maxQueueWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!withdraw(ticket)) {
+                ticket.grant.join().release(true);
+                complete(ticket, 0L);
+            }
+            throw new UpstreamSaturatedException("Interrupted while waiting for upstream capacity");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scheduler grant failed", e.getCause());
+        }
+    }
+
+    // Returns false when the ticket was granted concurrently and must be used or released.
+    private boolean withdraw(Ticket ticket) {
+        lock.lock();
+        try {
+            if (ticket.grant.isDone()) {
+                return false;
+            }
+            ArrayDeque<Ticket> queue = ticket.state.queue(ticket.priority);
+            queue.remove(ticket);
+            if (queue.isEmpty()) {
+                active.get(ticket.priority).remove(ticket.state);
+                ticket.state.deficit[ticket.priority.ordinal()] = 0L;
+            }
+            queued[ticket.priority.ordinal()]--;
+            evictIfIdle(ticket.state);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isThrottled(TenantState state) {
+        lock.lock();
+        try {
+            return state.isThrottled(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(Ticket ticket, long usedTokens) {
+        lock.lock();
+        try {
+            TenantState state = ticket.state;
+            state.inFlight--;
+            inFlight[ticket.priority.ordinal()]--;
+            state.credit(ticket.cost - usedTokens);
+            evictIfIdle(state);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tick() {
+        lock.lock();
+        try {
+            if (getQueued() > 0) {
+                dispatch();
+            }
+            sweepIdle();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Tenants whose budget refilled while they had nothing in flight are only removed here.
+    private void sweepIdle() {
+        long now = System.nanoTime();
+        tenants.values().removeIf(state -> state.isIdle(now));
+    }
+
+    // Called with the lock held.
+    private void dispatch() {
+        long now = System.nanoTime();
+        while (limiter.availablePermits() > 0) {
+            Ticket ticket = null;
+            for (Priority priority : Priority.values()) {
+                if (priority == Priority.BATCH && inFlight[priority.ordinal()] >= batchCapacity()) {
+                    continue;
+                }
+                ticket = next(priority, now);
+                if (ticket != null) {
+                    break;
+                }
+            }
+            if (ticket == null) {
+                return;
+            }
+
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+            if (permit == null) {
+                requeue(ticket);
+                return;
+            }
+            TenantState state = ticket.state;
+            state.inFlight++;
+            state.credit(-ticket.cost);
+            inFlight[ticket.priority.ordinal()]++;
+            queued[ticket.priority.ordinal()]--;
+            queueWait.get(ticket.priority).record(now - ticket.enqueuedAt, TimeUnit.NANOSECONDS);
+            ticket.grant.complete(permit);
+        }
+    }
+
+    // Deficit round robin over the tenants waiting in one class.
+    private Ticket next(Priority priority, long now) {
+        ArrayDeque<TenantState> ring = active.get(priority);
+        int index = priority.ordinal();
+        int skipped = 0;
+        while (!ring.isEmpty() && skipped < ring.size()) {
+            TenantState state = ring.peekFirst();
+            if (!state.isEligible(now)) {
+                ring.addLast(ring.pollFirst());
+                skipped++;
+                continue;
+            }
+            skipped = 0;
+
+            ArrayDeque<Ticket> queue = state.queue(priority);
+            Ticket head = queue.peekFirst();
+            if (state.deficit[index] < head.cost) {
+                state.deficit[index] += quantum * state.policy.weight();
+                ring.addLast(ring.pollFirst());
+                continue;
+            }
+            state.deficit[index] -= head.cost;
+            queue.pollFirst();
+            if (queue.isEmpty()) {
+                ring.pollFirst();
+                state.deficit[index] = 0L;
+            }
+            return head;
+        }
+        return null;
+    }
+
+    private void requeue(Ticket ticket) {
+        ArrayDeque<Ticket> queue = ticket.state.queue(ticket.priority);
+        if (queue.isEmpty()) {
+            active.get(ticket.priority).addFirst(ticket.state);
+        }
+        queue.addFirst(ticket);
+        ticket.state.deficit[ticket.priority.ordinal()] += ticket.cost;
+    }
+
+    private int batchCapacity() {
+        return Math.max(1, (int) (limiter.getLimit() * batchMaxShare));
+    }
+
+    private void evictIfIdle(TenantState state) {
+        if (state.isIdle(System.nanoTime())) {
+            tenants.remove(state.id);
+        }
+    }
+
+    int getTrackedTenants() {
+        lock.lock();
+        try {
+            return tenants.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        int total = 0;
+        for (int count : queued) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private static final class Ticket {
+        private final TenantState state;
+        private final Priority priority;
+        private final long cost;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<AdaptiveConcurrencyLimiter.Permit> grant = new CompletableFuture<>();
+
+        Ticket(TenantState state, Priority priority, long cost) {
+            this.state = state;
+            this.priority = priority;
+            this.cost = cost;
+        }
+    }
+
+    private static final class TenantState {
+        private final String id;
+        private final TenantPolicy policy;
+        private final Map<Priority, ArrayDeque<Ticket>> queues = new EnumMap<>(Priority.class);
+        private final long[] deficit = new long[Priority.values().length];
+        private int inFlight;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TenantState(String id, TenantPolicy policy) {
+            this.id = id;
+            this.policy = policy;
+            this.tokens = policy.tokenBurst();
+        }
+
+        ArrayDeque<Ticket> queue(Priority priority) {
+            return queues.computeIfAbsent(priority, p -> new ArrayDeque<>());
+        }
+
+        boolean isEligible(long now) {
+            return inFlight < policy.maxConcurrency() && !isOutOfTokens(now);
+        }
+
+        boolean isThrottled(long now) {
+            return inFlight >= policy.maxConcurrency() || isOutOfTokens(now);
+        }
+
+        boolean isIdle(long now) {
+            if (inFlight > 0) {
+                return false;
+            }
+            for (ArrayDeque<Ticket> queue : queues.values()) {
+                if (!queue.isEmpty()) {
+                    return false;
+                }
+            }
+            refill(now);
+            return !hasTokenBudget() || tokens >= policy.tokenBurst();
+        }
+
+        void credit(long amount) {
+            if (hasTokenBudget()) {
+                tokens = Math.min(policy.tokenBurst(), tokens + amount);
+            }
+        }
+
+        private boolean isOutOfTokens(long now) {
+            if (!hasTokenBudget()) {
+                return false;
+            }
+            refill(now);
+            return tokens <= 0;
+        }
+
+        private void refill(long now) {
+            if (hasTokenBudget()) {
+                double perNano = policy.tokensPerMinute() / (double) TimeUnit.MINUTES.toNanos(1);
+                tokens = Math.min(policy.tokenBurst(), tokens + (now - refilledAt) * perNano);
+            }
+            refilledAt = now;
+        }
+
+        private boolean hasTokenBudget() {
+            return policy.tokensPerMinute() > 0;
+        }
+    }
+}
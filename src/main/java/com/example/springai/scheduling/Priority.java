@@ -0,0 +1,9 @@
+package com.example.springai.scheduling;
+
+/**
+ * Scheduling classes, in dispatch order.
+ */
+public enum Priority {
+    INTERACTIVE,
+    BATCH
+}
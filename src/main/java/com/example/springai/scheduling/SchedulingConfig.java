@@ -0,0 +1,87 @@
+package com.example.springai.scheduling;
+
+import com.example.springai.limiter.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class SchedulingConfig implements WebMvcConfigurer {
+
+    @Value("${scheduler.api-key-header:X-API-Key}")
+    private String apiKeyHeader;
+
+    @Value("${scheduler.tenant-header:X-Tenant-Id}")
+    private String tenantHeader;
+
+    // Only enable behind a gateway that sets the tenant header itself; clients could pick any tenant.
+    @Value("${scheduler.trust-tenant-header:false}")
+    private boolean trustTenantHeader;
+
+    @Value("${scheduler.priority-header:X-Priority}")
+    private String priorityHeader;
+
+    @Value("${scheduler.batch-paths:/api/ai/workflow}")
+    private String[] batchPaths;
+
+    @Value("${scheduler.quantum:1000}")
+    private long quantum;
+
+    @Value("${scheduler.batch-max-share:0.5}")
+    private double batchMaxShare;
+
+    @Value("${scheduler.max-queue-wait:${ai.upstream.limit.max-queue-wait:5s}}")
+    private Duration maxQueueWait;
+
+    @Value("${scheduler.tenant.max-concurrency:16}")
+    private int tenantMaxConcurrency;
+
+    @Value("${scheduler.tenant.tokens-per-minute:200000}")
+    private long tenantTokensPerMinute;
+
+    @Value("${scheduler.tenant.token-burst:50000}")
+    private long tenantTokenBurst;
+
+    @Value("${scheduler.tenant.max-tracked:10000}")
+    private int maxTrackedTenants;
+
+    // Entries of the form tenant=weight; tenants not listed get weight 1.
+    @Value("${scheduler.tenant.weights:}")
+    private String[] tenantWeights;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TenantInterceptor(apiKeyHeader, trustTenantHeader ? tenantHeader : null, priorityHeader,
+                        Arrays.stream(batchPaths).filter(StringUtils::hasText).map(String::trim).toList()))
+                .addPathPatterns("/api/**");
+    }
+
+    @Bean(destroyMethod = "close")
+    public FairScheduler upstreamScheduler(AdaptiveConcurrencyLimiter upstreamLimiter, MeterRegistry meterRegistry) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String entry : tenantWeights) {
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                int weight = Integer.parseInt(entry.substring(separator + 1).trim());
+                if (weight < 1) {
+                    throw new IllegalArgumentException("scheduler.tenant.weights entry '" + entry.trim()
+                            + "' must have a weight of at least 1");
+                }
+                weights.put(entry.substring(0, separator).trim(), weight);
+            }
+        }
+        return new FairScheduler(upstreamLimiter,
+                tenant -> new TenantPolicy(weights.getOrDefault(tenant, 1), tenantMaxConcurrency,
+                        tenantTokensPerMinute, tenantTokenBurst),
+                quantum, batchMaxShare, maxQueueWait, maxTrackedTenants, meterRegistry);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.springai.scheduling;
+
+public record Tenant(String id, Priority priority) {
+
+    public static final Tenant ANONYMOUS = new Tenant("anonymous", Priority.INTERACTIVE);
+}
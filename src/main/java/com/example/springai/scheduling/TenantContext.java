@@ -0,0 +1,25 @@
+package com.example.springai.scheduling;
+
+/**
+ * Holds the tenant of the request being processed by the current thread.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Tenant> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static Tenant current() {
+        Tenant tenant = CURRENT.get();
+        return tenant != null ? tenant : Tenant.ANONYMOUS;
+    }
+
+    public static void attach(Tenant tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.springai.scheduling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Identifies the tenant of a request. An API key (bearer token or API key header) wins over the
+ * tenant header and is only ever kept as a hash. The tenant header is read only when configured,
+ * since it is only trustworthy when a gateway sets it. Paths configured as batch get the batch class;
+ * the priority header can lower a request to batch but never raise it.
+ */
+public class TenantInterceptor implements HandlerInterceptor {
+
+    private static final String BEARER = "Bearer ";
+
+    private final String apiKeyHeader;
+    private final String tenantHeader;
+    private final String priorityHeader;
+    private final List<String> batchPaths;
+
+    /**
+     * @param tenantHeader header naming the tenant, or {@code null} to ignore it
+     */
+    public TenantInterceptor(String apiKeyHeader, String tenantHeader, String priorityHeader,
+                             List<String> batchPaths) {
+        this.apiKeyHeader = apiKeyHeader;
+        this.tenantHeader = tenantHeader;
+        this.priorityHeader = priorityHeader;
+        this.batchPaths = batchPaths;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TenantContext.attach(new Tenant(resolveTenantId(request), resolvePriority(request)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        TenantContext.clear();
+    }
+
+    private String resolveTenantId(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        String authorization = request.getHeader("Authorization");
+        if (!StringUtils.hasText(apiKey) && authorization != null && authorization.startsWith(BEARER)) {
+            apiKey = authorization.substring(BEARER.length());
+        }
+        if (StringUtils.hasText(apiKey)) {
+            return "key-" + fingerprint(apiKey.trim());
+        }
+        String tenant = tenantHeader != null ? request.getHeader(tenantHeader) : null;
+        if (StringUtils.hasText(tenant)) {
+            return tenant.trim();
+        }
+        return Tenant.ANONYMOUS.id();
+    }
+
+    private Priority resolvePriority(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (String batchPath : batchPaths) {
+            if (path.startsWith(batchPath)) {
+                return Priority.BATCH;
+            }
+        }
+        String requested = request.getHeader(priorityHeader);
+        if (requested != null && Priority.BATCH.name().equals(requested.trim().toUpperCase(Locale.ROOT))) {
+            return Priority.BATCH;
+        }
+        return Priority.INTERACTIVE;
+    }
+
+    private static String fingerprint(String apiKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.springai.scheduling;
+
+/**
+ * Scheduling budget of one tenant. A non-positive token rate disables the token budget.
+ */
+public record TenantPolicy(int weight, int maxConcurrency, long tokensPerMinute, long tokenBurst) {
+
+    public TenantPolicy {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Tenant weight must be at least 1: " + weight);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.springai.scheduling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TenantThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TenantThrottledException(String message) {
+        super(message);
+    }
+}
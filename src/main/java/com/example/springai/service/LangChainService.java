@@ -1,27 +1,77 @@
 package com.example.springai.service;
 
+import com.example.springai.cluster.ClusterCache;
+import com.example.springai.deadline.DeadlineExecutor;
+import com.example.springai.metrics.AIMetrics;
+import com.example.springai.scheduling.FairScheduler;
+import com.example.springai.scheduling.Tenant;
+import com.example.springai.scheduling.TenantContext;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
 import dev.langchain4j.service.AiServices;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
 @Service
 public class LangChainService {
 
+    private static final String PROVIDER = "openai";
+    private static final String CLIENT = "langchain4j";
+    private static final long OUTPUT_TOKEN_ESTIMATE = 256;
+
     private final ChatLanguageModel chatModel;
+    private final OpenAiStreamingClient streamingClient;
     private final EmbeddingModel embeddingModel;
     private final ChatMemory chatMemory;
     private final AssistantAi assistant;
+    private final AIMetrics aiMetrics;
+    private final FairScheduler upstreamScheduler;
+    private final DeadlineExecutor deadlineExecutor;
+    private final ClusterCache clusterCache;
+
+    @Value("${langchain4j.open-ai.embedding-model.model-name:text-embedding-ada-002}")
+    private String embeddingModelName;
+
+    @Value("${cluster.cache.ttl:1h}")
+    private Duration cacheTtl;
 
     @Autowired
-    public LangChainService(ChatLanguageModel chatModel, 
-                           EmbeddingModel embeddingModel, 
-                           ChatMemory chatMemory) {
+    public LangChainService(@Lazy ChatLanguageModel chatModel, 
+                           OpenAiStreamingClient streamingClient,
+                           @Lazy EmbeddingModel embeddingModel, 
+                           ChatMemory chatMemory,
+                           AIMetrics aiMetrics,
+                           FairScheduler upstreamScheduler,
+                           DeadlineExecutor deadlineExecutor,
+                           ClusterCache clusterCache) {
         this.chatModel = chatModel;
+        this.streamingClient = streamingClient;
         this.embeddingModel = embeddingModel;
         this.chatMemory = chatMemory;
+        this.aiMetrics = aiMetrics;
+        this.upstreamScheduler = upstreamScheduler;
+        this.deadlineExecutor = deadlineExecutor;
+        this.clusterCache = clusterCache;
         this.assistant = AiServices.builder(AssistantAi.class)
                 .chatLanguageModel(chatModel)
                 .chatMemory(chatMemory)
@@ -29,18 +79,120 @@ public class LangChainService {
     }
 
     public String generateResponse(String prompt) {
-        return assistant.chat(prompt);
+        return limited("chat", estimateTokens(prompt) + OUTPUT_TOKEN_ESTIMATE,
+                () -> assistant.chat(prompt)).content().text();
     }
 
     public String generateSimpleResponse(String prompt) {
-        return chatModel.generate(prompt);
+        return limited("completion", estimateTokens(prompt) + OUTPUT_TOKEN_ESTIMATE,
+                () -> Response.from(chatModel.generate(prompt))).content();
+    }
+
+    /**
+     * Streams a chat completion, passing each token to {@code tokenListener}. When the listener
+     * returns {@code false} the upstream call is cancelled and the text received so far is returned.
+     * The upstream permit is held until the stream has ended or been cancelled.
+     */
+    public String streamResponse(List<ChatMessage> messages, Predicate<String> tokenListener) {
+        long inputTokens = 0L;
+        for (ChatMessage message : messages) {
+            inputTokens += estimateTokens(message.text());
+        }
+        long estimatedInput = inputTokens;
+        return limited("chat-stream", estimatedInput + OUTPUT_TOKEN_ESTIMATE,
+                () -> stream(messages, tokenListener, estimatedInput)).content().text();
+    }
+
+    private Response<AiMessage> stream(List<ChatMessage> messages, Predicate<String> tokenListener,
+                                       long estimatedInput) {
+        OpenAiStreamingClient.Completion completion;
+        try {
+            completion = streamingClient.stream(messages, tokenListener);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Streaming response failed", e);
+        }
+        int inputTokens = completion.inputTokens() > 0 ? completion.inputTokens() : (int) estimatedInput;
+        return Response.from(AiMessage.from(completion.text()),
+                new TokenUsage(inputTokens, completion.outputTokens()));
     }
 
     public float[] generateEmbedding(String text) {
-        return embeddingModel.embed(text).content().vector();
+        if (!clusterCache.isEnabled()) {
+            return limited("embedding", estimateTokens(text), () -> embeddingModel.embed(text)).content().vector();
+        }
+        
+        String cacheKey = "embedding:" + embeddingModelName + ':' + sha256(text);
+        byte[] cached = clusterCache.get(cacheKey);
+        if (cached != null) {
+            return toVector(cached);
+        }
+        float[] vector = limited("embedding", estimateTokens(text), () -> embeddingModel.embed(text)).content().vector();
+        clusterCache.put(cacheKey, toBytes(vector), cacheTtl);
+        return vector;
+    }
+
+    // The permit is taken on the worker thread, so a call abandoned at the deadline keeps
+    // counting against the limit until the provider actually returns. The tenant is captured
+    // here because the worker thread does not carry the request's context.
+    private <T> Response<T> limited(String operation, long estimatedTokens, Supplier<Response<T>> upstreamCall) {
+        Tenant tenant = TenantContext.current();
+        return deadlineExecutor.call(operation, () -> upstreamScheduler.execute(tenant, estimatedTokens,
+                () -> call(operation, upstreamCall), LangChainService::totalTokens));
+    }
+
+    private static long estimateTokens(String text) {
+        return text.length() / 4 + 1;
+    }
+
+    private static long totalTokens(Response<?> response) {
+        TokenUsage usage = response.tokenUsage();
+        if (usage == null || usage.totalTokenCount() == null) {
+            return 0L;
+        }
+        return usage.totalTokenCount();
+    }
+
+    private <T> Response<T> call(String operation, Supplier<Response<T>> upstreamCall) {
+        Timer.Sample sample = aiMetrics.startTimer();
+        Response<T> response;
+        try {
+            response = upstreamCall.get();
+        } catch (RuntimeException e) {
+            aiMetrics.recordLlmCall(PROVIDER, CLIENT, operation, sample, AIMetrics.OUTCOME_ERROR);
+            throw e;
+        }
+        aiMetrics.recordLlmCall(PROVIDER, CLIENT, operation, sample, AIMetrics.OUTCOME_SUCCESS);
+        
+        TokenUsage usage = response.tokenUsage();
+        if (usage != null) {
+            aiMetrics.recordTokens(PROVIDER, CLIENT, operation,
+                    usage.inputTokenCount(), usage.outputTokenCount());
+        }
+        return response;
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] toVector(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).asFloatBuffer().get(vector);
+        return vector;
     }
 
     interface AssistantAi {
-        String chat(String message);
+        Response<AiMessage> chat(String message);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package com.example.springai.service;
+
+import com.example.springai.deadline.Deadline;
+import com.example.springai.deadline.DeadlineContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.langchain4j.data.message.ChatMessage;
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Streams chat completions from OpenAI's server-sent events endpoint on the shared HTTP client.
+ * Reading happens on the calling thread, so the caller holds its upstream permit for as long as
+ * the stream is open. When the token listener returns {@code false} the HTTP call is cancelled
+ * and the provider stops generating.
+ */
+public class OpenAiStreamingClient {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String DATA = "data:";
+    private static final String DONE = "[DONE]";
+
+    private final OkHttpClient httpClient;
+    private final String completionsUrl;
+    private final String apiKey;
+    private final String modelName;
+    private final double temperature;
+    private final ObjectMapper objectMapper;
+
+    public OpenAiStreamingClient(OkHttpClient httpClient, String baseUrl, String apiKey, String modelName,
+                                 double temperature, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.completionsUrl = baseUrl.replaceAll("/+$", "") + "/chat/completions";
+        this.apiKey = apiKey;
+        this.modelName = modelName;
+        this.temperature = temperature;
+        this.objectMapper = objectMapper;
+    }
+
+    public Completion stream(List<ChatMessage> messages, Predicate<String> tokenListener) throws IOException {
+        Request request = new Request.Builder()
+                .url(completionsUrl)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Accept", "text/event-stream")
+                .post(RequestBody.create(objectMapper.writeValueAsBytes(body(messages)), JSON))
+                .build();
+        Call call = httpClient.newCall(request);
+        Deadline deadline = DeadlineContext.current();
+        try (Deadline.Registration ignored = deadline != null ? deadline.onCancel(call::cancel) : null;
+             Response response = call.execute()) {
+            ResponseBody responseBody = response.body();
+            if (!response.isSuccessful() || responseBody == null) {
+                throw new IOException("OpenAI returned " + response.code() + " for model " + modelName);
+            }
+            return read(call, responseBody.source(), tokenListener);
+        }
+    }
+
+    private Completion read(Call call, BufferedSource source, Predicate<String> tokenListener) throws IOException {
+        StringBuilder text = new StringBuilder();
+        int chunks = 0;
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (!line.startsWith(DATA)) {
+                continue;
+            }
+            String data = line.substring(DATA.length()).trim();
+            if (DONE.equals(data)) {
+                break;
+            }
+            JsonNode event = objectMapper.readTree(data);
+            JsonNode usage = event.path("usage");
+            if (usage.isObject()) {
+                return new Completion(text.toString(), usage.path("prompt_tokens").asInt(0),
+                        usage.path("completion_tokens").asInt(0));
+            }
+            String token = event.path("choices").path(0).path("delta").path("content").asText("");
+            if (token.isEmpty()) {
+                continue;
+            }
+            text.append(token);
+            chunks++;
+            if (!tokenListener.test(token)) {
+                call.cancel();
+                return new Completion(text.toString(), 0, chunks);
+            }
+        }
+        return new Completion(text.toString(), 0, chunks);
+    }
+
+    private ObjectNode body(List<ChatMessage> messages) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", modelName);
+        body.put("temperature", temperature);
+        body.put("stream", true);
+        body.putObject("stream_options").put("include_usage", true);
+        ArrayNode array = body.putArray("messages");
+        for (ChatMessage message : messages) {
+            array.addObject()
+                    .put("role", role(message))
+                    .put("content", message.text());
+        }
+        return body;
+    }
+
+    private static String role(ChatMessage message) {
+        return switch (message.type()) {
+            case SYSTEM -> "system";
+            case AI -> "assistant";
+            default -> "user";
+        };
+    }
+
+    /**
+     * The streamed text with its token counts. When the provider reports no usage, the input
+     * count is zero and the output count is the number of content chunks received.
+     */
+    public record Completion(String text, int inputTokens, int outputTokens) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.springai.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LexiconAnalyzerTest {
+
+    private final LexiconAnalyzer analyzer = new LexiconAnalyzer(Map.of(
+            Lexicon.QUESTION, List.of("?"),
+            Lexicon.REQUEST, List.of("please", "can you"),
+            Lexicon.POSITIVE, List.of("great", "awesome", "good"),
+            Lexicon.NEGATIVE, List.of("bad", "terrible", "awful")));
+
+    @Test
+    void extractsAllFeaturesInOnePass() {
+        TextFeatures features = analyzer.analyze("  Can You explain\tthis GREAT idea?\n");
+
+        assertThat(features.getWordCount()).isEqualTo(6);
+        assertThat(features.isQuestion()).isTrue();
+        assertThat(features.isRequest()).isTrue();
+        assertThat(features.getSentiment()).isEqualTo(TextFeatures.SENTIMENT_POSITIVE);
+    }
+
+    @Test
+    void keepsSubstringSemanticsAndPositivePrecedence() {
+        assertThat(analyzer.analyze("goodbye").getSentiment()).isEqualTo(TextFeatures.SENTIMENT_POSITIVE);
+        assertThat(analyzer.analyze("good and bad").getSentiment()).isEqualTo(TextFeatures.SENTIMENT_POSITIVE);
+        assertThat(analyzer.analyze("badly done").getSentiment()).isEqualTo(TextFeatures.SENTIMENT_NEGATIVE);
+        assertThat(analyzer.analyze("plain text").getSentiment()).isEqualTo(TextFeatures.SENTIMENT_NEUTRAL);
+        assertThat(analyzer.analyze("").getWordCount()).isZero();
+    }
+
+    @Test
+    void findsOverlappingKeywordsThroughFailureLinks() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("he", 0)
+                .add("she", 1)
+                .add("hers", 2)
+                .add("his", 3)
+                .build();
+
+        assertThat(automaton.scan("ushers")).isEqualTo(0b0111);
+        assertThat(automaton.scan("this")).isEqualTo(0b1000);
+        assertThat(automaton.scan("xyz")).isZero();
+    }
+
+    @Test
+    void matcherFindsKeywordsSplitAcrossChunks() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder().add("forbidden", 0).build();
+        KeywordAutomaton.Matcher matcher = automaton.matcher();
+
+        assertThat(matcher.feed("this is forb")).isZero();
+        assertThat(matcher.feed("IDDEN text")).isEqualTo(1);
+        assertThat(matcher.matched()).isEqualTo(1);
+
+        matcher.reset();
+        assertThat(matcher.matched()).isZero();
+    }
+
+    @Test
+    void largeLexiconKeepsOneTransitionPerCharacter() {
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            terms.add("term" + i + "x");
+        }
+        terms.add("needle");
+        LexiconAnalyzer large = new LexiconAnalyzer(Map.of(Lexicon.NEGATIVE, terms));
+
+        String input = "a ".repeat(2400) + "needle";
+        TextFeatures features = large.analyze(input);
+
+        assertThat(features.getWordCount()).isEqualTo(2401);
+        assertThat(features.isNegative()).isTrue();
+        assertThat(large.getAutomaton().stateCount()).isGreaterThan(5000);
+    }
+
+    @Test
+    void sparseAutomatonMatchesLikeTheDenseOne() {
+        List<String> keywords = List.of("he", "she", "hers", "his", "h\u00e9llo", "\u65e5\u672c", "\u672c\u5f53");
+        KeywordAutomaton dense = KeywordAutomaton.builder().addAll(keywords, 0).add("xyz", 1).build();
+        KeywordAutomaton sparse = KeywordAutomaton.builder().maxDenseTransitions(0)
+                .addAll(keywords, 0).add("xyz", 1).build();
+
+        assertThat(dense.isDense()).isTrue();
+        assertThat(sparse.isDense()).isFalse();
+        for (String text : List.of("ushers", "this", "H\u00c9LLO there", "\u65e5\u672c\u5f53", "xxyz", "nothing", "")) {
+            assertThat(sparse.scan(text)).as(text).isEqualTo(dense.scan(text));
+        }
+        assertThat(sparse.scan("ushers")).isEqualTo(1);
+        assertThat(sparse.scan("axyzb")).isEqualTo(2);
+    }
+
+    @Test
+    void lexiconFileTermsAreTrimmedAndBlankEntriesSkipped(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("lexicon.txt");
+        Files.writeString(file, "# comment\nquestion:\nquestion:   \nnegative:  meh  \n\n");
+        AnalysisConfig config = new AnalysisConfig();
+        ReflectionTestUtils.setField(config, "questionTerms", new String[] {"?", " "});
+        ReflectionTestUtils.setField(config, "requestTerms", new String[] {" please "});
+        ReflectionTestUtils.setField(config, "positiveTerms", new String[0]);
+        ReflectionTestUtils.setField(config, "negativeTerms", new String[0]);
+        ReflectionTestUtils.setField(config, "lexiconLocation", file.toUri().toString());
+
+        TextAnalyzer analyzer = config.textAnalyzer(new DefaultResourceLoader());
+
+        TextFeatures features = analyzer.analyze("please, this is meh");
+        assertThat(features.isRequest()).isTrue();
+        assertThat(features.isNegative()).isTrue();
+        assertThat(features.isQuestion()).isFalse();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.springai.cluster;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final String SECRET = "test-cluster-cache-secret";
+
+    private final List<CacheServer> servers = new ArrayList<>();
+    private final List<LocalCacheStore> stores = new ArrayList<>();
+    private final List<ClusterCache> caches = new ArrayList<>();
+    private final List<String> peers = new ArrayList<>();
+
+    @BeforeEach
+    void startNodes() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            LocalCacheStore store = new LocalCacheStore(1000);
+            CacheServer server = new CacheServer("127.0.0.1", 0, store, SECRET, 8, Duration.ofSeconds(30));
+            server.start();
+            stores.add(store);
+            servers.add(server);
+            peers.add("127.0.0.1:" + server.getPort());
+        }
+        for (int i = 0; i < 3; i++) {
+            ClusterCache cache = new ClusterCache(peers.get(i), stores.get(i),
+                    new CacheClient(Duration.ofMillis(500), Duration.ofSeconds(2), 2, Duration.ofSeconds(15), SECRET),
+                    () -> peers, 64, 2, TTL, new SimpleMeterRegistry());
+            cache.refreshPeers();
+            caches.add(cache);
+        }
+    }
+
+    @AfterEach
+    void stopNodes() throws IOException {
+        for (ClusterCache cache : caches) {
+            cache.close();
+        }
+        for (CacheServer server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    void valueWrittenOnOneNodeIsReadableFromEveryNode() throws InterruptedException {
+        for (int k = 0; k < 50; k++) {
+            caches.get(k % 3).put("key-" + k, bytes("value-" + k), TTL);
+        }
+        flushAll();
+
+        for (ClusterCache cache : caches) {
+            for (int k = 0; k < 50; k++) {
+                assertThat(string(cache.get("key-" + k))).isEqualTo("value-" + k);
+            }
+        }
+        assertThat(caches.get(0).get("missing")).isNull();
+    }
+
+    @Test
+    void keyIsStoredOnItsOwnerAndWriterOnly() throws InterruptedException {
+        String key = keyNotOwnedBy(peers.get(0));
+        caches.get(0).put(key, bytes("v"), TTL);
+        flushAll();
+
+        String owner = caches.get(0).getRing().owner(key);
+        for (int i = 0; i < 3; i++) {
+            boolean expected = i == 0 || peers.get(i).equals(owner);
+            assertThat(stores.get(i).get(key) != null).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void hotKeysAreReplicatedLocally() throws InterruptedException {
+        String key = keyNotOwnedBy(peers.get(1));
+        caches.get(0).put(key, bytes("hot"), TTL);
+        flushAll();
+
+        caches.get(1).get(key);
+        assertThat(stores.get(1).get(key)).isNull();
+        caches.get(1).get(key);
+        assertThat(string(stores.get(1).get(key))).isEqualTo("hot");
+    }
+
+    @Test
+    void unreachableOwnerDegradesToMiss() throws IOException {
+        String key = keyNotOwnedBy(peers.get(0));
+        String owner = caches.get(0).getRing().owner(key);
+        servers.get(peers.indexOf(owner)).close();
+
+        assertThat(caches.get(0).get(key)).isNull();
+    }
+
+    @Test
+    void framesSignedWithAnotherSecretAreRejected() throws IOException {
+        stores.get(0).put("guarded", bytes("v"), TTL);
+
+        try (CacheClient stranger = new CacheClient(Duration.ofMillis(500), Duration.ofSeconds(2), 2,
+                Duration.ofSeconds(15), "some-other-secret-value")) {
+            assertThatThrownBy(() -> stranger.get(peers.get(0), "guarded")).isInstanceOf(IOException.class);
+            assertThatThrownBy(() -> stranger.put(peers.get(0), "guarded", bytes("x"), TTL))
+                    .isInstanceOf(IOException.class);
+        }
+        assertThat(string(stores.get(0).get("guarded"))).isEqualTo("v");
+    }
+
+    @Test
+    void putWithForgedHeaderIsRejectedBeforeTheValueIsRead() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", servers.get(0).getPort())) {
+            socket.setSoTimeout(2000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeByte(CacheProtocol.OP_PUT);
+            out.writeUTF("forged");
+            out.writeLong(TTL.toMillis());
+            out.writeInt(CacheProtocol.MAX_VALUE_BYTES);
+            out.write(new byte[FrameAuthenticator.TAG_BYTES]);
+            out.flush();
+
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+        assertThat(stores.get(0).get("forged")).isNull();
+    }
+
+    @Test
+    void idleConnectionsAreClosedAndClientsReconnect() throws Exception {
+        LocalCacheStore store = new LocalCacheStore(10);
+        store.put("k", bytes("v"), TTL);
+        try (CacheServer server = new CacheServer("127.0.0.1", 0, store, SECRET, 2, Duration.ofMillis(100));
+             CacheClient client = new CacheClient(Duration.ofMillis(500), Duration.ofSeconds(2), 2,
+                     Duration.ofMillis(50), SECRET)) {
+            server.start();
+            String peer = "127.0.0.1:" + server.getPort();
+            try (Socket idle = new Socket("127.0.0.1", server.getPort())) {
+                idle.setSoTimeout(2000);
+                assertThat(idle.getInputStream().read()).isEqualTo(-1);
+            }
+
+            assertThat(string(client.get(peer, "k"))).isEqualTo("v");
+            Thread.sleep(200);
+            assertThat(string(client.get(peer, "k"))).isEqualTo("v");
+        }
+    }
+
+    @Test
+    void ringMovesOnlyKeysOfAddedNode() {
+        ConsistentHashRing three = new ConsistentHashRing(List.of("a:1", "b:1", "c:1"), 128);
+        ConsistentHashRing four = new ConsistentHashRing(List.of("a:1", "b:1", "c:1", "d:1"), 128);
+
+        Map<String, Integer> load = new HashMap<>();
+        int moved = 0;
+        for (int k = 0; k < 10_000; k++) {
+            String key = "key-" + k;
+            String before = three.owner(key);
+            String after = four.owner(key);
+            load.merge(after, 1, Integer::sum);
+            if (!before.equals(after)) {
+                assertThat(after).isEqualTo("d:1");
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(1500, 3500);
+        assertThat(load.values()).allSatisfy(count -> assertThat(count).isBetween(1500, 3500));
+        assertThat(four.owners("key-1", 3)).doesNotHaveDuplicates().hasSize(3);
+    }
+
+    private void flushAll() throws InterruptedException {
+        for (ClusterCache cache : caches) {
+            cache.flush();
+        }
+    }
+
+    private String keyNotOwnedBy(String peer) {
+        for (int k = 0; ; k++) {
+            String key = "key-" + k;
+            if (!caches.get(0).getRing().owner(key).equals(peer)) {
+                return key;
+            }
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
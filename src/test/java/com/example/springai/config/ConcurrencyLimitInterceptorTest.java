@@ -0,0 +1,120 @@
+package com.example.springai.config;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void slotIsHeldUntilTheBodyIsClosed() throws IOException {
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(1, 1);
+        OkHttpClient client = client(limiter);
+
+        Response response = client.newCall(request("127.0.0.1")).execute();
+        assertThat(limiter.getRunning()).isEqualTo(1);
+        assertThatThrownBy(() -> client.newCall(request("127.0.0.1")).execute())
+                .isInstanceOf(InterruptedIOException.class)
+                .hasMessageContaining("No free connection slot");
+
+        response.close();
+        assertThat(limiter.getRunning()).isZero();
+        try (Response next = client.newCall(request("127.0.0.1")).execute()) {
+            assertThat(next.body().string()).isEqualTo("ok");
+        }
+        assertThat(limiter.getQueued()).isZero();
+    }
+
+    @Test
+    void slotIsReleasedWhenTheCallFails() throws IOException {
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(1, 1);
+        OkHttpClient client = client(limiter);
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        Request refused = new Request.Builder().url("http://127.0.0.1:" + closedPort + "/").build();
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.newCall(refused).execute())
+                    .isInstanceOf(IOException.class)
+                    .hasMessageNotContaining("No free connection slot");
+        }
+        assertThat(limiter.getRunning()).isZero();
+    }
+
+    @Test
+    void perHostLimitOnlyBlocksThatHost() throws IOException {
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(10, 1);
+        OkHttpClient client = client(limiter);
+
+        try (Response held = client.newCall(request("127.0.0.1")).execute()) {
+            assertThatThrownBy(() -> client.newCall(request("127.0.0.1")).execute())
+                    .isInstanceOf(InterruptedIOException.class);
+            try (Response other = client.newCall(request("localhost")).execute()) {
+                assertThat(other.isSuccessful()).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void totalLimitBlocksEveryHost() throws IOException {
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(1, 10);
+        OkHttpClient client = client(limiter);
+
+        try (Response held = client.newCall(request("127.0.0.1")).execute()) {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> client.newCall(request("localhost")).execute())
+                    .isInstanceOf(InterruptedIOException.class)
+                    .hasMessageContaining("No free connection slot for localhost");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        }
+        assertThat(limiter.getRunning()).isZero();
+    }
+
+    private static OkHttpClient client(ConcurrencyLimitInterceptor limiter) {
+        return new OkHttpClient.Builder()
+                .connectTimeout(Duration.ofMillis(100))
+                .addInterceptor(limiter)
+                .build();
+    }
+
+    private Request request(String host) {
+        return new Request.Builder().url("http://" + host + ':' + server.getAddress().getPort() + "/").build();
+    }
+}
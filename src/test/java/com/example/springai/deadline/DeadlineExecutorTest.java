@@ -0,0 +1,120 @@
+package com.example.springai.deadline;
+
+import com.example.springai.limiter.UpstreamSaturatedException;
+import com.example.springai.metrics.AIMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // A limiter maximum of 0 leaves a single worker, which makes saturation easy to reach.
+    private final DeadlineExecutor executor = new DeadlineExecutor(new AIMetrics(registry), 0);
+
+    @AfterEach
+    void shutdown() {
+        DeadlineContext.attach(null);
+        executor.shutdown();
+    }
+
+    @Test
+    void runsInlineWithoutADeadline() {
+        Thread caller = Thread.currentThread();
+
+        assertThat(executor.call("generate", () -> Thread.currentThread() == caller)).isTrue();
+    }
+
+    @Test
+    void workerSeesTheCallersDeadline() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        DeadlineContext.attach(deadline);
+
+        assertThat(executor.call("generate", DeadlineContext::current)).isSameAs(deadline);
+    }
+
+    @Test
+    void expiryInterruptsTheWorkerAndFailsWith504() throws InterruptedException {
+        Deadline deadline = Deadline.after(Duration.ofMillis(50));
+        DeadlineContext.attach(deadline);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> executor.call("generate", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        })).isInstanceOf(DeadlineExceededException.class);
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(registry.get("ai.deadline.exceeded").tag("stage", "generate").counter().count()).isEqualTo(1.0);
+        assertThat(statusOf(DeadlineExceededException.class)).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    void expiredDeadlineFailsWithoutSubmitting() {
+        DeadlineContext.attach(Deadline.after(Duration.ZERO));
+
+        assertThatThrownBy(() -> executor.call("generate", () -> {
+            throw new AssertionError("must not run");
+        })).isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void fullPoolFailsWith503() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> holder = CompletableFuture.supplyAsync(() -> {
+            DeadlineContext.attach(Deadline.after(Duration.ofSeconds(10)));
+            try {
+                return executor.call("hold", () -> {
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "held";
+                });
+            } finally {
+                DeadlineContext.attach(null);
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        DeadlineContext.attach(Deadline.after(Duration.ofSeconds(10)));
+        assertThatThrownBy(() -> executor.call("generate", () -> "second"))
+                .isInstanceOf(UpstreamSaturatedException.class);
+        assertThat(statusOf(UpstreamSaturatedException.class)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+    }
+
+    @Test
+    void upstreamFailuresPropagateUnwrapped() {
+        DeadlineContext.attach(Deadline.after(Duration.ofSeconds(10)));
+
+        assertThatThrownBy(() -> executor.call("generate", () -> {
+            throw new IllegalStateException("provider error");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("provider error");
+    }
+
+    private static HttpStatus statusOf(Class<?> exception) {
+        return AnnotationUtils.findAnnotation(exception, ResponseStatus.class).value();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.springai.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineInterceptorTest {
+
+    private final DeadlineInterceptor interceptor =
+            new DeadlineInterceptor("X-Request-Timeout", Duration.ofSeconds(60), Duration.ofSeconds(120));
+
+    @AfterEach
+    void detach() {
+        DeadlineContext.attach(null);
+    }
+
+    @Test
+    void headerAcceptsMillisecondsAndDurations() {
+        assertThat(timeoutFor("1500")).isBetween(Duration.ofMillis(1400), Duration.ofMillis(1500));
+        assertThat(timeoutFor(" 5s ")).isBetween(Duration.ofMillis(4900), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void headerIsClampedToTheMaximum() {
+        assertThat(timeoutFor("10m")).isBetween(Duration.ofSeconds(119), Duration.ofSeconds(120));
+    }
+
+    @Test
+    void missingOrInvalidHeaderUsesTheDefault() {
+        for (String value : new String[] {null, "", "soon", "-5s", "0"}) {
+            assertThat(timeoutFor(value)).as(String.valueOf(value))
+                    .isBetween(Duration.ofSeconds(59), Duration.ofSeconds(60));
+        }
+    }
+
+    @Test
+    void completionCancelsTheDeadlineAndClearsTheThread() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        Deadline deadline = DeadlineContext.current();
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(DeadlineContext.current()).isNull();
+        assertThat(deadline.isExpired()).isTrue();
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertThat(DeadlineContext.current()).isNull();
+    }
+
+    private Duration timeoutFor(String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (header != null) {
+            request.addHeader("X-Request-Timeout", header);
+        }
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        try {
+            return DeadlineContext.current().remaining();
+        } finally {
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.springai.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineTest {
+
+    @AfterEach
+    void detach() {
+        DeadlineContext.attach(null);
+    }
+
+    @Test
+    void cancelRunsRegisteredHooksOnce() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        AtomicInteger calls = new AtomicInteger();
+        deadline.onCancel(calls::incrementAndGet);
+
+        deadline.cancel();
+        deadline.cancel();
+
+        assertThat(calls).hasValue(1);
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.hasAtLeast(Duration.ZERO)).isFalse();
+    }
+
+    @Test
+    void closedRegistrationIsNotCalled() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        AtomicInteger calls = new AtomicInteger();
+
+        try (Deadline.Registration ignored = deadline.onCancel(calls::incrementAndGet)) {
+            assertThat(calls).hasValue(0);
+        }
+        deadline.cancel();
+
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void hookRegisteredAfterCancelRunsImmediately() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        deadline.cancel();
+        AtomicInteger calls = new AtomicInteger();
+
+        deadline.onCancel(calls::incrementAndGet);
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void expiresWithTime() throws InterruptedException {
+        Deadline deadline = Deadline.after(Duration.ofMillis(20));
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(deadline.hasAtLeast(Duration.ofSeconds(1))).isFalse();
+
+        Thread.sleep(40);
+
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.remaining()).isZero();
+        assertThatThrownBy(() -> deadline.check("generate"))
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("generate");
+    }
+
+    @Test
+    void contextChecksOnlyWhenADeadlineIsAttached() {
+        assertThat(DeadlineContext.current()).isNull();
+        assertThat(DeadlineContext.hasAtLeast(Duration.ofDays(1))).isTrue();
+        DeadlineContext.check("analyze");
+
+        Deadline expired = Deadline.after(Duration.ZERO);
+        assertThat(DeadlineContext.attach(expired)).isNull();
+        assertThat(DeadlineContext.current()).isSameAs(expired);
+        assertThat(DeadlineContext.hasAtLeast(Duration.ofMillis(1))).isFalse();
+        assertThatThrownBy(() -> DeadlineContext.check("analyze"))
+                .isInstanceOf(DeadlineExceededException.class);
+
+        assertThat(DeadlineContext.attach(null)).isSameAs(expired);
+        assertThat(DeadlineContext.current()).isNull();
+    }
+}
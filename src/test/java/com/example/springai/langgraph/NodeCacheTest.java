@@ -0,0 +1,100 @@
+package com.example.springai.langgraph;
+
+import com.example.springai.analysis.TextFeatures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NodeCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        NodeCache cache = new NodeCache(2, Long.MAX_VALUE, Duration.ofMinutes(1), registry);
+        cache.put(key("a"), Map.of("value", "a"));
+        cache.put(key("b"), Map.of("value", "b"));
+
+        assertThat(cache.get(key("a"))).containsEntry("value", "a");
+        cache.put(key("c"), Map.of("value", "c"));
+
+        assertThat(cache.get(key("b"))).isNull();
+        assertThat(cache.get(key("a"))).isNotNull();
+        assertThat(cache.get(key("c"))).isNotNull();
+        assertThat(registry.get("workflow.node.cache.evictions").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("workflow.node.cache").tag("result", "miss").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void staysWithinTheByteBound() {
+        NodeCache cache = new NodeCache(100, 1_000, Duration.ofMinutes(1), registry);
+        cache.put(key("small"), Map.of("value", "x"));
+        long small = cache.bytes();
+
+        cache.put(key("large"), Map.of("value", "x".repeat(300)));
+
+        assertThat(cache.bytes()).isLessThanOrEqualTo(1_000).isGreaterThan(small);
+        assertThat(cache.get(key("small"))).isNull();
+        assertThat(cache.get(key("large"))).isNotNull();
+
+        cache.put(key("huge"), Map.of("value", "x".repeat(1_000)));
+        assertThat(cache.size()).isZero();
+        assertThat(cache.bytes()).isZero();
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        NodeCache cache = new NodeCache(100, Long.MAX_VALUE, Duration.ofMillis(20), registry);
+        cache.put(key("a"), Map.of("value", "a"));
+        assertThat(cache.get(key("a"))).isNotNull();
+
+        Thread.sleep(40);
+
+        assertThat(cache.get(key("a"))).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.bytes()).isZero();
+    }
+
+    @Test
+    void keyCoversEveryPropertyOfTheInputs() {
+        TextFeatures positive = new TextFeatures(3, false, false, true, false);
+        TextFeatures mixed = new TextFeatures(3, false, false, true, true);
+        assertThat(positive.toString()).isEqualTo(mixed.toString());
+
+        assertThat(NodeCache.key("analyze", new WorkflowState(Map.of("features", positive)), List.of("features")))
+                .isNotEqualTo(NodeCache.key("analyze", new WorkflowState(Map.of("features", mixed)), List.of("features")));
+        assertThat(NodeCache.key("analyze", new WorkflowState(Map.of("features", positive)), List.of("features")))
+                .isEqualTo(NodeCache.key("analyze", new WorkflowState(Map.of("features",
+                        new TextFeatures(3, false, false, true, false))), List.of("features")));
+    }
+
+    @Test
+    void keyDistinguishesValueTypesAndBoundaries() {
+        assertThat(NodeCache.key("n", new WorkflowState(Map.of("v", 1)), List.of("v")))
+                .isNotEqualTo(NodeCache.key("n", new WorkflowState(Map.of("v", "1")), List.of("v")));
+        assertThat(NodeCache.key("n", new WorkflowState(Map.of("a", "x,", "b", "y")), List.of("a", "b")))
+                .isNotEqualTo(NodeCache.key("n", new WorkflowState(Map.of("a", "x", "b", ",y")), List.of("a", "b")));
+        assertThat(NodeCache.key("n", new WorkflowState(), List.of("missing")))
+                .isEqualTo(NodeCache.key("n", new WorkflowState(), List.of("missing")));
+        assertThat(NodeCache.key("n", new WorkflowState(), List.of("v")))
+                .isNotEqualTo(NodeCache.key("m", new WorkflowState(), List.of("v")));
+    }
+
+    @Test
+    void unencodableInputIsRejected() {
+        WorkflowState state = new WorkflowState(Map.of("v", new Object()));
+
+        assertThatThrownBy(() -> NodeCache.key("n", state, List.of("v")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static NodeCache.Key key(String input) {
+        return NodeCache.key("node", new WorkflowState(Map.of("input", input)), List.of("input"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.springai.langgraph;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowTest {
+
+    private final NodeCache cache = new NodeCache(100, Long.MAX_VALUE, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void cachedNodeReplaysItsStateDelta() {
+        Workflow workflow = workflow(state -> {
+            executions.incrementAndGet();
+            state.put("upper", state.get("input", "").toUpperCase());
+            state.put("length", state.get("input", "").length());
+            return state;
+        });
+
+        WorkflowState first = workflow.execute(new WorkflowState(Map.of("input", "hello", "other", 1)));
+        WorkflowState second = workflow.execute(new WorkflowState(Map.of("input", "hello", "other", 2)));
+        WorkflowState third = workflow.execute(new WorkflowState(Map.of("input", "bye")));
+
+        assertThat(executions).hasValue(2);
+        assertThat(first.getData()).isEqualTo(Map.of("input", "hello", "other", 1, "upper", "HELLO", "length", 5));
+        assertThat(second.getData()).isEqualTo(Map.of("input", "hello", "other", 2, "upper", "HELLO", "length", 5));
+        assertThat(third.<String>get("upper")).isEqualTo("BYE");
+    }
+
+    @Test
+    void resultMarkedSkipCacheIsNotStored() {
+        Workflow workflow = workflow(state -> {
+            executions.incrementAndGet();
+            state.put("upper", state.get("input", "").toUpperCase());
+            if (executions.get() == 1) {
+                state.skipCache();
+            }
+            return state;
+        });
+
+        workflow.execute(new WorkflowState(Map.of("input", "hello")));
+        workflow.execute(new WorkflowState(Map.of("input", "hello")));
+        workflow.execute(new WorkflowState(Map.of("input", "hello")));
+
+        assertThat(executions).hasValue(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void skipCacheDoesNotLeakIntoTheNextNode() {
+        AtomicInteger second = new AtomicInteger();
+        Workflow workflow = new Workflow()
+                .addNode("first", state -> {
+                    state.skipCache();
+                    return state;
+                })
+                .addCacheableNode("second", state -> {
+                    second.incrementAndGet();
+                    state.put("done", true);
+                    return state;
+                }, "input")
+                .addEdge("first", "second")
+                .setEntryPoint("first")
+                .setNodeCache(cache);
+
+        workflow.execute(new WorkflowState(Map.of("input", "hello")));
+        workflow.execute(new WorkflowState(Map.of("input", "hello")));
+
+        assertThat(second).hasValue(1);
+    }
+
+    private Workflow workflow(WorkflowNode node) {
+        return new Workflow()
+                .addCacheableNode("transform", node, "input")
+                .setEntryPoint("transform")
+                .setNodeCache(cache);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.springai.langsmith;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.MAP;
+
+class TraceEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TraceEncoder encoder = new TraceEncoder(objectMapper);
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(encoder, "maxStringLength", 8);
+        ReflectionTestUtils.setField(encoder, "maxCollectionItems", 2);
+        ReflectionTestUtils.setField(encoder, "maxDepth", 2);
+    }
+
+    @Test
+    void beanPropertiesAreCappedWithoutReadingTheRest() {
+        Wide wide = new Wide();
+
+        Object summary = encoder.summarize(wide, 0);
+
+        assertThat(summary).isEqualTo(Map.of("a", 1, "b", "abcdefgh...[truncated 2 chars]",
+                "_truncated_entries", 1));
+        assertThat(wide.reads).hasValue(0);
+    }
+
+    @Test
+    void nestedBeansStopAtMaxDepthWithoutReadingDeeperProperties() {
+        Node root = new Node(new Node(new Node(null)));
+
+        Object summary = encoder.summarize(root, 0);
+
+        assertThat(summary).isEqualTo(Map.of("child", Map.of("child", "<Node>")));
+        assertThat(root.child.child.reads).hasValue(0);
+    }
+
+    @Test
+    void largeCollectionsAndVectorsAreSummarized() {
+        Response response = new Response(IntStream.range(0, 10_000).boxed().toList(), new float[1536]);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> summary = (Map<String, Object>) encoder.summarize(response, 0);
+
+        assertThat(summary.get("items")).isEqualTo(Map.of("size", 10_000, "head", List.of(0, 1)));
+        assertThat(summary.get("vector")).asInstanceOf(MAP)
+                .containsEntry("type", "float[]")
+                .containsEntry("dimension", 1536);
+    }
+
+    @Test
+    void jacksonAnnotationsAreHonoured() {
+        Object summary = encoder.summarize(new Annotated(), 0);
+
+        assertThat(summary).isEqualTo(Map.of("renamed", "visible"));
+    }
+
+    @Test
+    void jsonTreesAreCappedLikeCollections() {
+        ArrayNode array = objectMapper.createArrayNode();
+        for (int i = 0; i < 100; i++) {
+            array.addObject().put("text", "a long text value").put("n", i).put("extra", true);
+        }
+
+        Object summary = encoder.summarize(array, 0);
+
+        assertThat(summary).isEqualTo(Map.of("size", 100, "head", List.of(
+                Map.of("text", "a long t...[truncated 9 chars]", "n", 0, "_truncated_entries", 1),
+                Map.of("text", "a long t...[truncated 9 chars]", "n", 1, "_truncated_entries", 1))));
+        assertThat(encoder.summarize(Collections.emptyMap(), 0)).isEqualTo(Map.of());
+    }
+
+    @JsonPropertyOrder({"a", "b", "c"})
+    static class Wide {
+        final AtomicInteger reads = new AtomicInteger();
+
+        public int getA() {
+            return 1;
+        }
+
+        public String getB() {
+            return "abcdefghij";
+        }
+
+        public String getC() {
+            reads.incrementAndGet();
+            return "never read";
+        }
+    }
+
+    static class Node {
+        final AtomicInteger reads = new AtomicInteger();
+        private final Node child;
+
+        Node(Node child) {
+            this.child = child;
+        }
+
+        public Node getChild() {
+            reads.incrementAndGet();
+            return child;
+        }
+    }
+
+    @JsonPropertyOrder({"items", "vector"})
+    record Response(List<Integer> items, float[] vector) {
+    }
+
+    static class Annotated {
+        @JsonProperty("renamed")
+        public String getVisible() {
+            return "visible";
+        }
+
+        @JsonIgnore
+        public String getSecret() {
+            return "secret";
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.springai.langsmith;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsAppendedRecordsAcrossSegmentsAndResumesFromCheckpoint() throws IOException {
+        try (TraceSpool spool = new TraceSpool(directory, 64, 4096)) {
+            for (int i = 0; i < 10; i++) {
+                spool.append(bytes("trace-" + i));
+            }
+
+            TraceSpool.Batch first = spool.read(4, Long.MAX_VALUE);
+            assertThat(strings(first.getPayloads())).containsExactly("trace-0", "trace-1", "trace-2", "trace-3");
+            spool.commit(first.getNext());
+        }
+
+        try (TraceSpool reopened = new TraceSpool(directory, 64, 4096)) {
+            TraceSpool.Batch rest = reopened.read(100, Long.MAX_VALUE);
+            assertThat(strings(rest.getPayloads())).containsExactly(
+                    "trace-4", "trace-5", "trace-6", "trace-7", "trace-8", "trace-9");
+            reopened.commit(rest.getNext());
+            assertThat(reopened.backlogBytes()).isZero();
+            assertThat(reopened.read(100, Long.MAX_VALUE).isEmpty()).isTrue();
+        }
+    }
+
+    @Test
+    void uncommittedBatchIsReadAgain() throws IOException {
+        try (TraceSpool spool = new TraceSpool(directory, 1024, 4096)) {
+            spool.append(bytes("a"));
+            spool.append(bytes("b"));
+
+            assertThat(strings(spool.read(10, Long.MAX_VALUE).getPayloads())).containsExactly("a", "b");
+            assertThat(strings(spool.read(10, Long.MAX_VALUE).getPayloads())).containsExactly("a", "b");
+        }
+    }
+
+    @Test
+    void truncatesPartiallyWrittenTailOnRecovery() throws IOException {
+        try (TraceSpool spool = new TraceSpool(directory, 1024, 4096)) {
+            spool.append(bytes("complete"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 50, 1, 2}, StandardOpenOption.APPEND);
+
+        try (TraceSpool spool = new TraceSpool(directory, 1024, 4096)) {
+            spool.append(bytes("after-crash"));
+            assertThat(strings(spool.read(10, Long.MAX_VALUE).getPayloads())).containsExactly("complete", "after-crash");
+        }
+    }
+
+    @Test
+    void dropsOldestSegmentsBeyondMaxSize() throws IOException {
+        try (TraceSpool spool = new TraceSpool(directory, 64, 128)) {
+            for (int i = 0; i < 20; i++) {
+                spool.append(bytes("trace-" + i));
+            }
+
+            assertThat(spool.totalBytes()).isLessThanOrEqualTo(128 + 64);
+            assertThat(spool.getDroppedBytes()).isPositive();
+            List<String> remaining = strings(spool.read(100, Long.MAX_VALUE).getPayloads());
+            assertThat(remaining).isNotEmpty().last().isEqualTo("trace-19");
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(List<byte[]> payloads) {
+        return payloads.stream().map(payload -> new String(payload, StandardCharsets.UTF_8)).toList();
+    }
+}
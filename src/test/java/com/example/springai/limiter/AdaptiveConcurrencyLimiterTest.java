@@ -0,0 +1,140 @@
+package com.example.springai.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static AdaptiveConcurrencyLimiter limiter(int initial, int min, int max, Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimiter(initial, min, max, 0.5, latencyThreshold,
+                Duration.ofMillis(50), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void limitGrowsAdditivelyWhileSaturatedAndStopsAtMax() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 2, 8, Duration.ofSeconds(10));
+
+        double previous = limiter.getLimit();
+        drainAndRelease(limiter, true);
+        assertThat(limiter.getLimit()).isGreaterThan(previous).isLessThan(previous + 1.5);
+
+        for (int i = 0; i < 200; i++) {
+            drainAndRelease(limiter, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(8.0);
+    }
+
+    @Test
+    void lightlyUsedLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 2, 16, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 50; i++) {
+            limiter.execute(() -> "ok");
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(8.0);
+    }
+
+    @Test
+    void failuresBackOffMultiplicativelyDownToMin() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 2, 16, Duration.ofSeconds(10));
+
+        limiter.tryAcquire().release(false);
+        assertThat(limiter.getLimit()).isEqualTo(4.0);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new IllegalStateException("upstream failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter.getLimit()).isEqualTo(2.0);
+
+        limiter.tryAcquire().release(false);
+        assertThat(limiter.getLimit()).isEqualTo(2.0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void slowCallsCountAsDrops() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 2, 16, Duration.ofMillis(10));
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        Thread.sleep(30);
+        permit.release(true);
+
+        assertThat(limiter.getLimit()).isEqualTo(4.0);
+    }
+
+    @Test
+    void releasingTwiceCountsOnce() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 2, 16, Duration.ofSeconds(10));
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        permit.release(false);
+        permit.release(false);
+
+        assertThat(limiter.getLimit()).isEqualTo(4.0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void waitingCallerTimesOutOrGetsReleasedPermit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 2, 2, Duration.ofSeconds(10));
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThatThrownBy(() -> limiter.acquire(Duration.ofMillis(20)))
+                .isInstanceOf(UpstreamSaturatedException.class);
+        assertThat(limiter.getQueued()).isZero();
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiter =
+                CompletableFuture.supplyAsync(() -> limiter.acquire(Duration.ofSeconds(5)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(limiter.getQueued()).isEqualTo(1);
+        first.release(true);
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getQueued()).isZero();
+    }
+
+    @Test
+    void availablePermitsAndExternalQueueFeedSaturation() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 8, Duration.ofSeconds(10));
+        limiter.tryAcquire();
+
+        assertThat(limiter.availablePermits()).isEqualTo(3);
+        limiter.setExternalQueue(() -> 5);
+        assertThat(limiter.getQueued()).isEqualTo(5);
+        assertThat(limiter.getSaturation()).isEqualTo(6 / 4.0);
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThatThrownBy(() -> limiter(4, 0, 8, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> limiter(4, 8, 2, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(limiter(100, 2, 8, Duration.ofSeconds(1)).getLimit()).isEqualTo(8.0);
+    }
+
+    private static void drainAndRelease(AdaptiveConcurrencyLimiter limiter, boolean success) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        AdaptiveConcurrencyLimiter.Permit permit;
+        while ((permit = limiter.tryAcquire()) != null) {
+            permits.add(permit);
+        }
+        permits.forEach(p -> p.release(success));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.springai.local;
+
+import com.example.springai.analysis.TextFeatures;
+import com.example.springai.metrics.AIMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalModelTasksTest {
+
+    private static final TextFeatures LEXICON = new TextFeatures(4, false, false, false, false);
+
+    private final StubOllamaClient ollama = new StubOllamaClient();
+    private final LocalModelService service = new LocalModelService(ollama, "llama2", List.of(), 1, 4,
+            Duration.ofSeconds(1), new AIMetrics(new SimpleMeterRegistry()));
+    private final LocalModelTasks tasks = new LocalModelTasks(service);
+
+    @AfterEach
+    void close() {
+        service.close();
+    }
+
+    @Test
+    void classifyReadsTheThreeLabels() {
+        ollama.answer = "Question, request, Positive.";
+
+        TextFeatures features = tasks.classify("", "can you help?", LEXICON);
+
+        assertThat(features.getWordCount()).isEqualTo(4);
+        assertThat(features.isQuestion()).isTrue();
+        assertThat(features.isRequest()).isTrue();
+        assertThat(features.getSentiment()).isEqualTo(TextFeatures.SENTIMENT_POSITIVE);
+        assertThat(ollama.lastModel).isEqualTo("llama2");
+    }
+
+    @Test
+    void classifyKeepsLexiconFeaturesWhenAnswerIsUnclearOrMissing() {
+        ollama.answer = "I think this is a question";
+        assertThat(tasks.classify("", "is it?", LEXICON)).isSameAs(LEXICON);
+
+        ollama.failure = new IOException("connection refused");
+        assertThat(tasks.classify("", "is it?", LEXICON)).isSameAs(LEXICON);
+    }
+
+    @Test
+    void reviewReturnsFeedbackOnlyForFailVerdicts() {
+        ollama.answer = "PASS";
+        assertThat(tasks.review("mistral", "hi", "Hello!")).isNull();
+        assertThat(ollama.lastModel).isEqualTo("mistral");
+
+        ollama.answer = "  fail: Answer the question that was asked. ";
+        assertThat(tasks.review("mistral", "hi", "Hello!")).isEqualTo("Answer the question that was asked.");
+
+        ollama.answer = "FAIL";
+        assertThat(tasks.review("mistral", "hi", "Hello!")).isEqualTo("Response needs improvement");
+
+        ollama.answer = "Looks fine to me";
+        assertThat(tasks.review("mistral", "hi", "Hello!")).isNull();
+    }
+
+    @Test
+    void reviewPassesWhenTheLocalModelIsUnavailable() {
+        ollama.failure = new IOException("connection refused");
+
+        assertThat(tasks.review("", "hi", "Hello!")).isNull();
+    }
+
+    @Test
+    void modelThatFailedToLoadIsRetriedAndServedOnceWarm() throws InterruptedException {
+        ollama.answer = "FAIL too vague";
+        ollama.failedLoads.set(2);
+        try (LocalModelService preloading = new LocalModelService(ollama, "llama2", List.of("llama2"), 1, 4,
+                Duration.ofSeconds(1), new AIMetrics(new SimpleMeterRegistry()))) {
+            preloading.start(Duration.ofHours(1), Duration.ofMillis(20));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            String feedback = null;
+            while (feedback == null && System.nanoTime() < deadline) {
+                feedback = new LocalModelTasks(preloading).review("", "hi", "Hello!");
+                Thread.sleep(10);
+            }
+            assertThat(feedback).isEqualTo("too vague");
+            assertThat(ollama.failedLoads.get()).isNegative();
+        }
+    }
+
+    private static final class StubOllamaClient extends OllamaClient {
+
+        private final AtomicInteger failedLoads = new AtomicInteger();
+        private volatile String answer = "";
+        private volatile IOException failure;
+        private volatile String lastModel;
+
+        StubOllamaClient() {
+            super(new OkHttpClient(), "http://localhost:11434", new ObjectMapper(), Duration.ofMinutes(30),
+                    Duration.ofMinutes(5));
+        }
+
+        @Override
+        public Generation generate(String model, String prompt) throws IOException {
+            lastModel = model;
+            if (failure != null) {
+                throw failure;
+            }
+            return new Generation(answer, prompt.length() / 4, answer.length() / 4);
+        }
+
+        @Override
+        public void load(String model) throws IOException {
+            if (failedLoads.getAndDecrement() > 0) {
+                throw new IOException("model is still downloading");
+            }
+        }
+    }
+}
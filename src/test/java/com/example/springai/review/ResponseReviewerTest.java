@@ -0,0 +1,78 @@
+package com.example.springai.review;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseReviewerTest {
+
+    private final ResponseReviewer reviewer = new ResponseReviewer(List.of(
+            new ForbiddenTermsRule(List.of("secret plan", "password")),
+            new MinLengthRule(10)));
+
+    @Test
+    void forbiddenTermIsFoundAcrossTokenBoundaries() {
+        ReviewRule.Check check = new ForbiddenTermsRule(List.of("secret plan")).start();
+
+        assertThat(check.onToken("the sec")).isNull();
+        assertThat(check.onToken("ret")).isNull();
+        assertThat(check.onToken(" P")).isNull();
+        assertThat(check.onToken("LAN is")).isNotNull();
+    }
+
+    @Test
+    void forbiddenTermSplitOverManySingleCharacterTokensIsFound() {
+        ReviewRule.Check check = new ForbiddenTermsRule(List.of("password")).start();
+
+        String found = null;
+        for (char c : "my Password".toCharArray()) {
+            found = check.onToken(String.valueOf(c));
+            if (found != null) {
+                break;
+            }
+        }
+        assertThat(found).isNotNull();
+        assertThat(new ForbiddenTermsRule(List.of("password")).start().onToken("pass word")).isNull();
+    }
+
+    @Test
+    void sessionAbortsOnFirstForbiddenTokenAndStaysFailed() {
+        ResponseReviewer.Session session = reviewer.start();
+
+        assertThat(session.accept("Here is the pass")).isTrue();
+        assertThat(session.accept("word you asked for")).isFalse();
+        assertThat(session.accept(" and more")).isFalse();
+
+        assertThat(session.complete("Here is the password you asked for and more")).isFalse();
+        assertThat(session.isAborted()).isTrue();
+        assertThat(session.isPassed()).isFalse();
+        assertThat(session.getFeedback()).isEqualTo("Response contains content that is not allowed");
+    }
+
+    @Test
+    void sessionAppliesEndOfResponseChecksWithoutAborting() {
+        ResponseReviewer.Session session = reviewer.start();
+
+        assertThat(session.accept("Too short")).isTrue();
+        assertThat(session.complete("Too short")).isFalse();
+
+        assertThat(session.isAborted()).isFalse();
+        assertThat(session.getFeedback()).isEqualTo("Response is too short");
+    }
+
+    @Test
+    void reviewOfCompleteResponseMatchesStreamedReview() {
+        assertThat(reviewer.review("A perfectly fine answer.")).isNull();
+        assertThat(reviewer.review("Tell nobody the Secret Plan.")).isNotNull();
+        assertThat(reviewer.review("Short")).isEqualTo("Response is too short");
+
+        ResponseReviewer.Session session = reviewer.start();
+        for (String token : List.of("A perfectly ", "fine ", "answer.")) {
+            assertThat(session.accept(token)).isTrue();
+        }
+        assertThat(session.complete("A perfectly fine answer.")).isTrue();
+        assertThat(session.isPassed()).isTrue();
+    }
+}
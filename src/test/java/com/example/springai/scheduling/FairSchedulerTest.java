@@ -0,0 +1,229 @@
+package com.example.springai.scheduling;
+
+import com.example.springai.limiter.AdaptiveConcurrencyLimiter;
+import com.example.springai.limiter.UpstreamSaturatedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FairSchedulerTest {
+
+    private static final Function<String, TenantPolicy> UNLIMITED = tenant -> new TenantPolicy(1, 16, 0, 0);
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final List<String> order = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private AdaptiveConcurrencyLimiter limiter;
+    private FairScheduler scheduler;
+
+    @AfterEach
+    void stop() {
+        gate.countDown();
+        callers.shutdownNow();
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    void interactiveRequestsAreDispatchedBeforeBatch() throws Exception {
+        start(1, 0.5, Duration.ofSeconds(5), 100, UNLIMITED);
+        Future<String> holder = hold("holder", Priority.INTERACTIVE);
+
+        Future<String> batch = submit("batch-tenant", Priority.BATCH, 1, record("batch"));
+        awaitUntil(() -> scheduler.getQueued() == 1);
+        Future<String> interactive = submit("interactive-tenant", Priority.INTERACTIVE, 1, record("interactive"));
+        awaitUntil(() -> scheduler.getQueued() == 2);
+        gate.countDown();
+
+        holder.get(2, TimeUnit.SECONDS);
+        batch.get(2, TimeUnit.SECONDS);
+        interactive.get(2, TimeUnit.SECONDS);
+        assertThat(order).containsExactly("interactive", "batch");
+    }
+
+    @Test
+    void batchHoldsAtMostItsShareOfTheLimit() throws Exception {
+        start(4, 0.5, Duration.ofSeconds(5), 100, UNLIMITED);
+        List<Future<String>> batch = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            batch.add(submit("batch-" + i, Priority.BATCH, 1, () -> blockUntilGate("batch")));
+        }
+        awaitUntil(() -> limiter.getInFlight() == 2 && scheduler.getQueued() == 2);
+
+        assertThat(submit("interactive", Priority.INTERACTIVE, 1, () -> "done").get(2, TimeUnit.SECONDS))
+                .isEqualTo("done");
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        gate.countDown();
+        for (Future<String> future : batch) {
+            future.get(2, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void tenantsShareCapacityByWeight() throws Exception {
+        start(1, 0.5, Duration.ofSeconds(5), 100,
+                tenant -> new TenantPolicy(tenant.equals("heavy") ? 3 : 1, 16, 0, 0));
+        Future<String> holder = hold("holder", Priority.INTERACTIVE);
+
+        List<Future<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(submit("heavy", Priority.INTERACTIVE, 100, record("H")));
+            int queued = i + 1;
+            awaitUntil(() -> scheduler.getQueued() == queued);
+        }
+        for (int i = 0; i < 6; i++) {
+            calls.add(submit("light", Priority.INTERACTIVE, 100, record("L")));
+            int queued = i + 7;
+            awaitUntil(() -> scheduler.getQueued() == queued);
+        }
+        gate.countDown();
+
+        holder.get(2, TimeUnit.SECONDS);
+        for (Future<String> call : calls) {
+            call.get(2, TimeUnit.SECONDS);
+        }
+        assertThat(order).containsExactly("H", "H", "H", "L", "H", "H", "H", "L", "L", "L", "L", "L");
+    }
+
+    @Test
+    void timeoutIsThrottledForBusyTenantAndSaturatedOtherwise() throws Exception {
+        start(2, 0.5, Duration.ofMillis(100), 100, tenant -> new TenantPolicy(1, 1, 0, 0));
+        hold("a", Priority.INTERACTIVE);
+
+        assertThatThrownBy(() -> run("a"))
+                .isInstanceOf(TenantThrottledException.class);
+
+        hold("b", Priority.INTERACTIVE);
+        assertThatThrownBy(() -> run("c"))
+                .isInstanceOf(UpstreamSaturatedException.class);
+        assertThat(scheduler.getQueued()).isZero();
+    }
+
+    @Test
+    void ticketsTimingOutWhileBeingGrantedDoNotLeakPermits() throws Exception {
+        start(2, 0.5, Duration.ofMillis(1), 100, UNLIMITED);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < 8; w++) {
+            String tenant = "tenant-" + w;
+            workers.add(callers.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        scheduler.execute(new Tenant(tenant, Priority.INTERACTIVE), 1, () -> {
+                            LockSupport.parkNanos(100_000);
+                            return "ok";
+                        }, result -> 0L);
+                        completed.incrementAndGet();
+                    } catch (UpstreamSaturatedException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(completed.get() + rejected.get()).isEqualTo(1600);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(scheduler.getQueued()).isZero();
+        assertThat(run("after")).isEqualTo("ok");
+    }
+
+    @Test
+    void extraTenantsShareOverflowAndIdleTenantsAreSwept() throws Exception {
+        start(4, 0.5, Duration.ofSeconds(5), 1, tenant -> new TenantPolicy(1, 16, 60_000, 1_000));
+        List<Future<String>> calls = new ArrayList<>();
+        for (String tenant : List.of("a", "b", "c")) {
+            calls.add(submit(tenant, Priority.INTERACTIVE, 500, () -> blockUntilGate(tenant)));
+        }
+        awaitUntil(() -> limiter.getInFlight() == 3);
+
+        assertThat(scheduler.getTrackedTenants()).isEqualTo(2);
+        gate.countDown();
+        for (Future<String> call : calls) {
+            call.get(2, TimeUnit.SECONDS);
+        }
+        awaitUntil(() -> scheduler.getTrackedTenants() == 0);
+    }
+
+    @Test
+    void quantumMustBePositive() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.9, Duration.ofSeconds(10), Duration.ofSeconds(1), registry);
+
+        for (long quantum : new long[] {0, -100}) {
+            assertThatThrownBy(() -> new FairScheduler(limiter, UNLIMITED, quantum, 0.5, Duration.ofSeconds(1), 10,
+                    registry)).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("quantum");
+        }
+    }
+
+    private void start(int limit, double batchMaxShare, Duration maxQueueWait, int maxTrackedTenants,
+                       Function<String, TenantPolicy> policies) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(limit, limit, limit, 0.9, Duration.ofSeconds(10),
+                maxQueueWait, registry);
+        scheduler = new FairScheduler(limiter, policies, 100, batchMaxShare, maxQueueWait, maxTrackedTenants,
+                registry);
+    }
+
+    private Future<String> hold(String tenant, Priority priority) throws InterruptedException {
+        int inFlight = limiter.getInFlight();
+        Future<String> future = submit(tenant, priority, 1, () -> blockUntilGate(tenant));
+        awaitUntil(() -> limiter.getInFlight() == inFlight + 1);
+        return future;
+    }
+
+    private Future<String> submit(String tenant, Priority priority, long cost, Supplier<String> call) {
+        return callers.submit(() -> scheduler.execute(new Tenant(tenant, priority), cost, call, result -> 0L));
+    }
+
+    private String run(String tenant) {
+        return scheduler.execute(new Tenant(tenant, Priority.INTERACTIVE), 1, () -> "ok", result -> 0L);
+    }
+
+    private Supplier<String> record(String label) {
+        return () -> {
+            order.add(label);
+            return label;
+        };
+    }
+
+    private String blockUntilGate(String label) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return label;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}